@@ -0,0 +1,48 @@
+package com.mercadolivre.pricemonitor.config;
+
+import com.mercadolivre.pricemonitor.service.TableBackupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * Restore command: started with {@code --backup.restore.from=<export dir>}, the application
+ * restores that export (see {@link TableBackupService}) and exits instead of serving.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "backup.restore.from")
+public class BackupRestoreRunner implements ApplicationRunner {
+
+    private final TableBackupService tableBackupService;
+    private final ConfigurableApplicationContext context;
+    private final String from;
+
+    public BackupRestoreRunner(TableBackupService tableBackupService,
+                               ConfigurableApplicationContext context,
+                               @Value("${backup.restore.from}") String from) {
+        this.tableBackupService = tableBackupService;
+        this.context = context;
+        this.from = from;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            tableBackupService.restore(Paths.get(from));
+        } catch (Exception e) {
+            log.error("❌ Falha no restore de {}: {}", from, e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,194 @@
+package com.mercadolivre.pricemonitor.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Connection pools, one per {@link Workload}, plus the optional read replica.
+ *
+ * Each workload gets its own Hikari pool (interactive, batch, maintenance) on the primary
+ * database: common settings come from {@code spring.datasource.hikari.*}, per-pool ones
+ * from {@code spring.datasource.workloads.<pool>.*}. When {@code spring.datasource.replica.url}
+ * is set, read-only transactions go to the 'replica' pool instead (see
+ * {@link ReadWriteRoutingDataSource}). Flyway migrates through the maintenance pool.
+ * Every pool is published by Spring Boot as hikaricp.* metrics tagged with its name.
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    private static final String COMMON_HIKARI = "spring.datasource.hikari";
+
+    @Bean
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, environment, "interactive", 10, "spring.datasource.workloads.interactive");
+    }
+
+    @Bean
+    public HikariDataSource batchDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, environment, "batch", 10, "spring.datasource.workloads.batch");
+    }
+
+    @Bean
+    @FlywayDataSource
+    public HikariDataSource maintenanceDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, environment, "maintenance", 3, "spring.datasource.workloads.maintenance");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.datasource.replica.url")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${spring.datasource.replica.url}") String url,
+            @Value("${spring.datasource.replica.username:}") String username,
+            @Value("${spring.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = pool(properties, environment, "replica", 10, "spring.datasource.replica.hikari");
+        dataSource.setJdbcUrl(url);
+        if (!username.isEmpty()) {
+            dataSource.setUsername(username);
+        }
+        if (!password.isEmpty()) {
+            dataSource.setPassword(password);
+        }
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.datasource.replica.url")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${spring.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${spring.datasource.replica.max-lag-seconds:5}") double maxLagSeconds,
+            MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, lagQuery.isEmpty() ? ReplicaLagMonitor.POSTGRESQL_LAG_QUERY : lagQuery,
+                maxLagSeconds, meterRegistry);
+    }
+
+    /**
+     * The DataSource everything else (JPA, JdbcTemplate) uses. The lazy proxy defers the
+     * pool choice to the first statement, when the transaction's read-only flag is bound.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactive,
+                                 @Qualifier("batchDataSource") DataSource batch,
+                                 @Qualifier("maintenanceDataSource") DataSource maintenance,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        DataSource primary = new WorkloadRoutingDataSource(Map.of(
+                Workload.INTERACTIVE, interactive,
+                Workload.BATCH, batch,
+                Workload.MAINTENANCE, maintenance));
+        DataSource replicaPool = replica.getIfAvailable();
+        if (replicaPool == null) {
+            return new LazyConnectionDataSourceProxy(primary);
+        }
+        log.info("📖 Réplica de leitura configurada: transações read-only usam o pool 'replica'");
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replicaPool, replicaLagMonitor.getObject()));
+    }
+
+    /**
+     * HTTP requests use the interactive pool.
+     */
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> interactiveWorkloadFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                Workload previous = Workload.enter(Workload.INTERACTIVE);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    Workload.restore(previous);
+                }
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Applies {@link DatabaseWorkload}; ordered before the transaction interceptor.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor databaseWorkloadAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(DatabaseWorkload.class, true))
+                .union(new AnnotationMatchingPointcut(null, DatabaseWorkload.class, true));
+        MethodInterceptor interceptor = invocation -> {
+            Workload previous = Workload.enter(workloadOf(invocation.getMethod(), invocation.getThis()));
+            try {
+                return invocation.proceed();
+            } finally {
+                Workload.restore(previous);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static Workload workloadOf(Method method, Object target) {
+        Class<?> targetClass = target != null ? AopUtils.getTargetClass(target) : method.getDeclaringClass();
+        DatabaseWorkload annotation = AnnotatedElementUtils.findMergedAnnotation(
+                AopUtils.getMostSpecificMethod(method, targetClass), DatabaseWorkload.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, DatabaseWorkload.class);
+        }
+        return annotation != null ? annotation.value() : Workload.current();
+    }
+
+    /**
+     * A Hikari pool on {@code spring.datasource.*} with the common Hikari settings,
+     * then the pool-specific ones under {@code prefix}.
+     */
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                         String name, int defaultSize, String prefix) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setMaximumPoolSize(defaultSize);
+        Binder binder = Binder.get(environment);
+        binder.bind(COMMON_HIKARI, Bindable.ofInstance(dataSource));
+        binder.bind(prefix, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mercadolivre.pricemonitor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Identifies the database behind the DataSource (PostgreSQL in production, MySQL in
+ * development, H2 in tests) for the code paths that issue vendor-specific SQL.
+ * Read once from the JDBC metadata; a failed lookup is retried on the next call.
+ */
+@Component
+@Slf4j
+public class DatabaseVendor {
+
+    private final DataSource dataSource;
+    private volatile String productName;
+
+    public DatabaseVendor(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * The JDBC product name ("PostgreSQL", "MySQL", "H2"), or null when it could not be read.
+     */
+    public String productName() {
+        if (productName == null) {
+            try {
+                productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            } catch (MetaDataAccessException e) {
+                log.warn("⚠️ Não foi possível identificar o banco: {}", e.getMessage());
+            }
+        }
+        return productName;
+    }
+
+    public boolean isPostgres() {
+        return "PostgreSQL".equals(productName());
+    }
+
+    public boolean isMySql() {
+        return "MySQL".equals(productName());
+    }
+}
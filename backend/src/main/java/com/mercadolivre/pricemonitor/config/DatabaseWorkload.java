@@ -0,0 +1,19 @@
+package com.mercadolivre.pricemonitor.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method (or every method of the annotated bean) as the given
+ * {@link Workload}. Applied outside @Transactional, so the transaction's connection
+ * already comes from the workload's pool. Has no effect across @Async hand-offs.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DatabaseWorkload {
+    Workload value();
+}
@@ -0,0 +1,59 @@
+package com.mercadolivre.pricemonitor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id sequences past the ids already in use.
+ *
+ * The Flyway migrations that create the pooled sequences (V1_1, V7) already start them
+ * past MAX(id), so nothing runs at startup. Rows written with explicit ids bypass the
+ * sequences, though: TableBackupService calls this after a restore copies rows back in,
+ * bumping each sequence above MAX(id). It is a no-op once the sequence is ahead.
+ */
+@Component
+@Slf4j
+public class IdSequenceAligner {
+
+    /** Must match allocationSize of the @SequenceGenerator mappings. */
+    private static final int ALLOCATION_SIZE = 50;
+
+    /** Sequence name → table. */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "subscriptions_seq", "subscriptions",
+            "catalog_items_seq", "catalog_items",
+            "price_history_seq", "price_history",
+            "notifications_seq", "notifications");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseVendor databaseVendor;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, DatabaseVendor databaseVendor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseVendor = databaseVendor;
+    }
+
+    public void align() {
+        boolean postgres = databaseVendor.isPostgres();
+        boolean mySql = databaseVendor.isMySql();
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                if (postgres) {
+                    jdbcTemplate.queryForObject(
+                            "SELECT setval('" + sequence + "', GREATEST((SELECT last_value FROM " + sequence + "), "
+                                    + "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + "))",
+                            Long.class);
+                } else if (mySql) {
+                    // MySQL has no sequences; Hibernate emulates them with a one-row next_val table
+                    jdbcTemplate.update("UPDATE " + sequence + " SET next_val = GREATEST(next_val, "
+                            + "(SELECT COALESCE(MAX(id), 0) + " + ALLOCATION_SIZE + " FROM " + table + "))");
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ Could not align sequence {}: {}", sequence, e.getMessage());
+            }
+        });
+    }
+}
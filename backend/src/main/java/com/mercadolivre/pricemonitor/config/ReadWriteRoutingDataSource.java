@@ -0,0 +1,60 @@
+package com.mercadolivre.pricemonitor.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections to {@code @Transactional(readOnly = true)} work and primary
+ * connections to everything else (writes, non-transactional access, Flyway).
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction manager asks for a
+ * connection before the read-only flag is bound to the thread, and the proxy defers the
+ * real getConnection() to the first statement. The replica is skipped while the lag
+ * monitor reports it unusable, and a failed replica connection falls back to the primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && lagMonitor.isReplicaUsable();
+    }
+}
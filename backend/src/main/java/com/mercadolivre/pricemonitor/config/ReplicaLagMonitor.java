@@ -0,0 +1,83 @@
+package com.mercadolivre.pricemonitor.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Decides whether read-only transactions may use the replica.
+ *
+ * Every {@code spring.datasource.replica.lag-check-ms} the lag query runs on the replica;
+ * the replica is usable while it answers and its lag is at most
+ * {@code spring.datasource.replica.max-lag-seconds}. A failed replica connection marks it
+ * unusable until the next successful check.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * PostgreSQL streaming replica: 0 when everything received is replayed (an idle primary
+     * would otherwise look lagged), else the age of the last replayed transaction.
+     * A server not in recovery (e.g. a second local instance) reports 0.
+     */
+    public static final String POSTGRESQL_LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+                    + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                    + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("datasource.replica.lag.seconds", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica (-1 when unreachable)")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${spring.datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            setUsable(lagSeconds <= maxLagSeconds,
+                    lagSeconds <= maxLagSeconds ? null : String.format("lag de %.1fs", lagSeconds));
+        } catch (Exception e) {
+            lagSeconds = -1;
+            setUsable(false, e.getMessage());
+        }
+    }
+
+    void markUnavailable(Exception cause) {
+        setUsable(false, cause.getMessage());
+    }
+
+    private void setUsable(boolean value, String reason) {
+        if (usable == value) {
+            return;
+        }
+        usable = value;
+        if (value) {
+            log.info("📖 Réplica disponível (lag {}s); leituras read-only voltam para a réplica", lagSeconds);
+        } else {
+            log.warn("⚠️ Réplica indisponível ({}); leituras read-only vão para o primário", reason);
+        }
+    }
+}
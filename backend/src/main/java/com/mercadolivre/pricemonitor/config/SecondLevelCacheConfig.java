@@ -0,0 +1,109 @@
+package com.mercadolivre.pricemonitor.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for the entities read on every request/check:
+ * {@code User} (by id) and {@code MercadoLivreToken} (by id and by user).
+ *
+ * Regions live in an in-process Caffeine cache (JCache API), bounded by size and
+ * expiring after write. Entities use READ_WRITE, so updates through Hibernate invalidate
+ * the cached copy; the TTL bounds staleness for writes made outside this instance.
+ */
+@Slf4j
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String USERS_REGION = "users";
+    public static final String ML_TOKENS_REGION = "ml_tokens";
+    /** Query cache region of MercadoLivreTokenRepository.findByUser. */
+    public static final String ML_TOKENS_BY_USER_REGION = "ml_tokens_by_user";
+
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${entity-cache.users.max-entries:10000}") long usersMaxEntries,
+            @Value("${entity-cache.users.ttl-minutes:30}") long usersTtlMinutes,
+            @Value("${entity-cache.ml-tokens.max-entries:1000}") long tokensMaxEntries,
+            @Value("${entity-cache.ml-tokens.ttl-minutes:10}") long tokensTtlMinutes) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("price-monitor-hibernate"), getClass().getClassLoader());
+        createRegion(cacheManager, USERS_REGION, usersMaxEntries, usersTtlMinutes);
+        createRegion(cacheManager, ML_TOKENS_REGION, tokensMaxEntries, tokensTtlMinutes);
+        createRegion(cacheManager, ML_TOKENS_BY_USER_REGION, tokensMaxEntries, tokensTtlMinutes);
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS_REGION, 1000, 10);
+        // Update timestamps decide whether cached query results are stale: never evicted
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+        log.info("🗃️ Cache de 2º nível: users={} entradas/{}min, ml_tokens={} entradas/{}min",
+                usersMaxEntries, usersTtlMinutes, tokensMaxEntries, tokensTtlMinutes);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Hit ratio per region (hits / (hits + misses)), next to the hit/miss counters that
+     * Spring Boot publishes as hibernate.second.level.cache.requests.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : List.of(USERS_REGION, ML_TOKENS_REGION, ML_TOKENS_BY_USER_REGION)) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                        .description("Second-level cache hit ratio")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return 0.0;
+        }
+        double total = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return total > 0 ? regionStatistics.getHitCount() / total : 0.0;
+    }
+
+    /** maxEntries/ttlMinutes of 0 mean unbounded / no expiry. */
+    private static void createRegion(CacheManager cacheManager, String name, long maxEntries, long ttlMinutes) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttlMinutes > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofMinutes(ttlMinutes).toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -1,10 +1,14 @@
 package com.mercadolivre.pricemonitor.config;
 
+import com.mercadolivre.pricemonitor.controller.ScrapeCycleEndpoint;
 import com.mercadolivre.pricemonitor.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -14,6 +18,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -30,6 +35,9 @@ public class SecurityConfig {
     
     @Value("${frontend.url:http://localhost:5173}")
     private String frontendUrl;
+
+    @Autowired
+    private Environment environment;
     
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -73,6 +81,7 @@ public class SecurityConfig {
     
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        boolean internalManagementPort = ManagementPortType.get(environment) == ManagementPortType.DIFFERENT;
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(AbstractHttpConfigurer::disable)
@@ -85,6 +94,9 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/auth/health").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/email/verify").permitAll()
+                // Cycle reports cover all users: served only when actuator has its own internal port
+                .requestMatchers(new AndRequestMatcher(EndpointRequest.to(ScrapeCycleEndpoint.class),
+                        request -> !internalManagementPort)).denyAll()
                 .requestMatchers(HttpMethod.GET, "/actuator/**").permitAll()
                 
                 // Password reset endpoints (public)
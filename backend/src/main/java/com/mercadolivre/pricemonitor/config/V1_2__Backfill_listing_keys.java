@@ -0,0 +1,139 @@
+package com.mercadolivre.pricemonitor.config;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flyway migration 1.2 (both vendors): fills products.listing_key, added by V1_1. The key can't
+ * be computed in SQL, and V6/V7 group products by it, so it must be set before they run.
+ *
+ * The canonicalization is a frozen copy of ListingKeys.of as of this migration: an applied
+ * migration must produce the same keys forever, whatever later happens to ListingKeys.
+ *
+ * Picked up by Spring Boot's Flyway auto-configuration as a JavaMigration bean.
+ */
+@Component
+public class V1_2__Backfill_listing_keys extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        // Read everything first: MySQL can't run the updates while a result set streams
+        List<Object[]> keys = new ArrayList<>();
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, url FROM products WHERE listing_key IS NULL")) {
+            while (rows.next()) {
+                keys.add(new Object[]{listingKey(rows.getString(2)), rows.getLong(1)});
+            }
+        }
+        try (PreparedStatement update = connection.prepareStatement("UPDATE products SET listing_key = ? WHERE id = ?")) {
+            for (int i = 0; i < keys.size(); i++) {
+                update.setString(1, (String) keys.get(i)[0]);
+                update.setLong(2, (Long) keys.get(i)[1]);
+                update.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        }
+    }
+
+    /**
+     * Listing key: {@code p/MLB...} for a catalog page, the MLx item id for an item,
+     * otherwise the URL without query string, fragment, whitespace or a repeated scheme.
+     */
+    private static String listingKey(String url) {
+        if (url == null) {
+            return null;
+        }
+        String catalogId = catalogId(url);
+        if (catalogId != null) {
+            return "p/" + catalogId;
+        }
+        String itemId = itemId(url);
+        return itemId != null ? itemId : canonicalUrl(url);
+    }
+
+    private static String canonicalUrl(String url) {
+        int length = url.length();
+        int start = 0;
+        while (start < length && url.charAt(start) <= ' ') {
+            start++;
+        }
+        boolean https = url.startsWith("https://", start);
+        int end = length;
+        for (int i = start; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+            if (c == 'h' && i > start && https && url.startsWith("https://", i)) {
+                end = i;
+                break;
+            }
+        }
+        while (end > start && url.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return url.substring(start, end);
+    }
+
+    private static String itemId(String url) {
+        int length = url.length();
+        for (int i = 0; i + 3 < length; i++) {
+            if (url.charAt(i) != 'M' || url.charAt(i + 1) != 'L' || !isUpper(url.charAt(i + 2))) {
+                continue;
+            }
+            int digits = i + 3;
+            if (url.charAt(digits) == '-') {
+                digits++;
+            }
+            int end = digits;
+            while (end < length && isDigit(url.charAt(end))) {
+                end++;
+            }
+            if (end > digits) {
+                return url.substring(i, i + 3) + url.substring(digits, end);
+            }
+        }
+        return null;
+    }
+
+    private static String catalogId(String url) {
+        int length = url.length();
+        for (int i = url.indexOf("/p/ML"); i >= 0; i = url.indexOf("/p/ML", i + 1)) {
+            int site = i + 5;
+            if (site >= length || !isUpper(url.charAt(site))) {
+                continue;
+            }
+            int end = site + 1;
+            while (end < length && isDigit(url.charAt(end))) {
+                end++;
+            }
+            if (end > site + 1) {
+                return url.substring(i + 3, end);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,72 @@
+package com.mercadolivre.pricemonitor.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Pooled, keep-alive WebClients for outbound HTTP traffic.
+ * Connections are reused across the whole update cycle instead of being opened per request.
+ */
+@Slf4j
+@Configuration
+public class WebClientConfig {
+
+    @Bean
+    public WebClient scraperWebClient(
+            @Value("${scraper.api.url}") String scraperApiUrl,
+            @Value("${scraper.http.max-connections:50}") int maxConnections,
+            @Value("${scraper.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${scraper.http.response-timeout-ms:60000}") long responseTimeoutMs) {
+        log.info("🔌 Scraper WebClient pool: maxConnections={}, connectTimeout={}ms, responseTimeout={}ms",
+                maxConnections, connectTimeoutMs, responseTimeoutMs);
+        return WebClient.builder()
+                .baseUrl(scraperApiUrl)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .clientConnector(new ReactorClientHttpConnector(
+                        pooledHttpClient("scraper", maxConnections, connectTimeoutMs, responseTimeoutMs)))
+                .build();
+    }
+
+    @Bean
+    public WebClient mercadoLivreWebClient(
+            @Value("${mercadolivre.api.url}") String apiUrl,
+            @Value("${mercadolivre.http.max-connections:100}") int maxConnections,
+            @Value("${mercadolivre.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+            @Value("${mercadolivre.http.response-timeout-ms:10000}") long responseTimeoutMs) {
+        log.info("🔌 Mercado Livre WebClient pool: maxConnections={}, connectTimeout={}ms, responseTimeout={}ms",
+                maxConnections, connectTimeoutMs, responseTimeoutMs);
+        return WebClient.builder()
+                .baseUrl(apiUrl)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .clientConnector(new ReactorClientHttpConnector(
+                        pooledHttpClient("mercadolivre", maxConnections, connectTimeoutMs, responseTimeoutMs)))
+                .build();
+    }
+
+    static HttpClient pooledHttpClient(String name, int maxConnections, int connectTimeoutMs, long responseTimeoutMs) {
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofSeconds(30))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .maxLifeTime(Duration.ofMinutes(5))
+                .evictInBackground(Duration.ofSeconds(60))
+                .metrics(true)
+                .build();
+        return HttpClient.create(provider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+    }
+}
@@ -0,0 +1,39 @@
+package com.mercadolivre.pricemonitor.config;
+
+/**
+ * Kind of work a thread is doing, which decides the connection pool it borrows from.
+ *
+ * HTTP requests run as INTERACTIVE (set by a servlet filter), methods annotated with
+ * {@link DatabaseWorkload} run as the annotated workload, and any other thread (update
+ * cycle, @Async tasks, schedulers) is BATCH. Background work therefore never takes
+ * connections from the pool that serves the dashboard.
+ */
+public enum Workload {
+    INTERACTIVE,
+    BATCH,
+    MAINTENANCE;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : BATCH;
+    }
+
+    /**
+     * Marks the current thread and returns the previous mark, to pass to {@link #restore}.
+     */
+    static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mercadolivre.pricemonitor.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link Workload}.
+ */
+public class WorkloadRoutingDataSource extends AbstractDataSource {
+
+    private final Map<Workload, DataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        for (Workload workload : Workload.values()) {
+            if (!this.pools.containsKey(workload)) {
+                throw new IllegalArgumentException("No pool for workload " + workload);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pools.get(Workload.current()).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return pools.get(Workload.current()).getConnection(username, password);
+    }
+}
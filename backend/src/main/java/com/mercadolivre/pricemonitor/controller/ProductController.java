@@ -6,9 +6,13 @@ import com.mercadolivre.pricemonitor.model.Product;
 import com.mercadolivre.pricemonitor.model.User;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
 import com.mercadolivre.pricemonitor.scheduler.PriceCheckScheduler;
+import com.mercadolivre.pricemonitor.service.AsyncProductUpdateService;
+import com.mercadolivre.pricemonitor.service.DuplicateProductException;
+import com.mercadolivre.pricemonitor.service.ProductLimitExceededException;
 import com.mercadolivre.pricemonitor.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -35,6 +39,7 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final AsyncProductUpdateService asyncProductUpdateService;
     private final PriceCheckScheduler scheduler;
     private final UserRepository userRepository;
 
@@ -88,7 +93,6 @@ public class ProductController {
                         .body(Map.of("error", "URL is required"));
             }
 
-            // Check if user email is verified
             User user = userRepository.findById(userId).orElse(null);
             if (user == null) {
                 log.error("❌ User not found for userId: {}", userId);
@@ -96,37 +100,6 @@ public class ProductController {
                         .body(Map.of("error", "Erro interno: usuário não encontrado"));
             }
 
-            // Check if product with same URL already exists for this user
-            if (productService.existsByUrlAndUserId(url, userId)) {
-                log.warn("⚠️ User {} tried to add duplicate product: {}", user.getEmail(), url);
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(Map.of(
-                            "error", "Produto já adicionado",
-                            "message", "Você já está monitorando este produto!",
-                            "code", "DUPLICATE_PRODUCT"
-                        ));
-            }
-
-            // Check product limit for unverified users (plano gratuito)
-            if (!Boolean.TRUE.equals(user.getEmailVerified())) {
-                List<Product> currentProducts = productService.getProductsByUserId(userId);
-                if (currentProducts.size() >= ProductService.UNVERIFIED_USER_PRODUCT_LIMIT) {
-                    log.warn("⚠️ Unverified user {} tried to add more than {} products", 
-                            user.getEmail(), ProductService.UNVERIFIED_USER_PRODUCT_LIMIT);
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                            .body(Map.of(
-                                "error", "Limite de produtos atingido",
-                                "message", String.format(
-                                    "O plano Gratuito permite monitorar até %d produtos. " +
-                                    "Verifique seu email para ativar sua conta!",
-                                    ProductService.UNVERIFIED_USER_PRODUCT_LIMIT),
-                                "code", "EMAIL_NOT_VERIFIED",
-                                "currentCount", currentProducts.size(),
-                                "limit", ProductService.UNVERIFIED_USER_PRODUCT_LIMIT
-                            ));
-                }
-            }
-
             log.info("➕ Adding new product for userId: {}, URL: {}", userId, url);
             Product product = productService.addProduct(url, userId);
             
@@ -141,7 +114,27 @@ public class ProductController {
 
             log.info("Product added successfully: {}", product.getName());
             return ResponseEntity.status(HttpStatus.CREATED).body(product);
-            
+
+        } catch (DuplicateProductException | DataIntegrityViolationException e) {
+            // DataIntegrityViolation: concurrent add of the same listing rejected by the unique index
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                        "error", "Produto já adicionado",
+                        "message", "Você já está monitorando este produto!",
+                        "code", "DUPLICATE_PRODUCT"
+                    ));
+        } catch (ProductLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of(
+                        "error", "Limite de produtos atingido",
+                        "message", String.format(
+                            "O plano Gratuito permite monitorar até %d produtos. " +
+                            "Verifique seu email para ativar sua conta!",
+                            e.getLimit()),
+                        "code", "EMAIL_NOT_VERIFIED",
+                        "currentCount", e.getCurrentCount(),
+                        "limit", e.getLimit()
+                    ));
         } catch (Exception e) {
             log.error("Error adding product", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -364,7 +357,7 @@ public class ProductController {
             int count = 0;
             for (Product product : products) {
                 try {
-                    productService.updateSingleProductAsync(product);
+                    asyncProductUpdateService.forceUpdateAsync(product);
                     count++;
                 } catch (Exception e) {
                     log.error("Failed to trigger update for product {}: {}", product.getId(), e.getMessage());
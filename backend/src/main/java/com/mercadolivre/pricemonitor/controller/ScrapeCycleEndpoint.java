@@ -0,0 +1,34 @@
+package com.mercadolivre.pricemonitor.controller;
+
+import com.mercadolivre.pricemonitor.model.ScrapeCycle;
+import com.mercadolivre.pricemonitor.service.ScrapeCycleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing the per-cycle performance reports to operators.
+ *
+ * The reports cover every user's products, so they are not part of the user API.
+ * Not exposed over HTTP by default; enable it on the management port only
+ * (see management.* in application.properties).
+ *
+ * Endpoints:
+ * - GET /actuator/scrapecycles?limit=50 - List the most recent update cycles (max 200)
+ */
+@Component
+@Endpoint(id = "scrapecycles")
+@RequiredArgsConstructor
+public class ScrapeCycleEndpoint {
+
+    private final ScrapeCycleService scrapeCycleService;
+
+    @ReadOperation
+    public List<ScrapeCycle> recentCycles(@Nullable Integer limit) {
+        return scrapeCycleService.getRecentCycles(limit != null ? limit : 50);
+    }
+}
@@ -3,7 +3,7 @@ package com.mercadolivre.pricemonitor.controller;
 import com.mercadolivre.pricemonitor.dto.ChangePasswordRequest;
 import com.mercadolivre.pricemonitor.dto.UpdateProfileRequest;
 import com.mercadolivre.pricemonitor.model.User;
-import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import com.mercadolivre.pricemonitor.repository.PriceChangeDailyRepository;
 import com.mercadolivre.pricemonitor.repository.ProductRepository;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -32,7 +32,7 @@ public class UserController {
     private ProductRepository productRepository;
 
     @Autowired
-    private PriceHistoryRepository priceHistoryRepository;
+    private PriceChangeDailyRepository priceChangeDailyRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -133,9 +133,9 @@ public class UserController {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
 
-            // Excluir histórico de preços dos produtos do usuário
-            log.info("📊 Excluindo histórico de preços...");
-            priceHistoryRepository.deleteByProductUserId(userId);
+            // Excluir estatísticas do usuário (o histórico de preços é do anúncio, compartilhado)
+            log.info("📊 Excluindo estatísticas de preços...");
+            priceChangeDailyRepository.deleteByUserId(userId);
 
             // Excluir produtos do usuário
             log.info("📦 Excluindo produtos...");
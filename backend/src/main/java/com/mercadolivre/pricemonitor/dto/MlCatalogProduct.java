@@ -0,0 +1,33 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Typed view of a Mercado Livre catalog product (/products/{id}).
+ * Only the buy box winner is mapped; the rest of the payload is skipped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MlCatalogProduct {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("buy_box_winner")
+    private BuyBoxWinner buyBoxWinner;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class BuyBoxWinner {
+        @JsonProperty("item_id")
+        private String itemId;
+    }
+}
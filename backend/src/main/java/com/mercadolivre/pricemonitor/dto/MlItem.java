@@ -0,0 +1,54 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Typed view of a Mercado Livre item (/items/{id}).
+ * Only the fields the price monitor uses are mapped; everything else is skipped
+ * by {@link MlItemDeserializer} without being materialized.
+ * {@code pictures} holds at most the first picture.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = MlItemDeserializer.class)
+public class MlItem {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("title")
+    private String title;
+
+    @JsonProperty("price")
+    private Double price;
+
+    /**
+     * Price before discount (preço riscado). Null when there is no promotion.
+     */
+    @JsonProperty("original_price")
+    private Double originalPrice;
+
+    @JsonProperty("thumbnail")
+    private String thumbnail;
+
+    @JsonProperty("pictures")
+    private List<Picture> pictures;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Picture {
+        @JsonProperty("url")
+        private String url;
+    }
+}
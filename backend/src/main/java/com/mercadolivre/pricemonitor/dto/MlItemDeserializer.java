@@ -0,0 +1,100 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streaming parser for Mercado Livre item payloads.
+ *
+ * An item carries dozens of attributes, variations, shipping and seller blocks, and up to
+ * ~12 pictures; the monitor reads six fields. This walks the token stream once, copies
+ * the scalars it needs, keeps only the first picture URL and skips every other subtree
+ * with {@link JsonParser#skipChildren()}, so nothing but the result object is allocated.
+ */
+public class MlItemDeserializer extends StdDeserializer<MlItem> {
+
+    public MlItemDeserializer() {
+        super(MlItem.class);
+    }
+
+    @Override
+    public MlItem deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        MlItem item = new MlItem();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "id" -> item.setId(text(p, value));
+                case "title" -> item.setTitle(text(p, value));
+                case "price" -> item.setPrice(number(p, value));
+                case "original_price" -> item.setOriginalPrice(number(p, value));
+                case "thumbnail" -> item.setThumbnail(text(p, value));
+                case "pictures" -> item.setPictures(firstPicture(p, value));
+                default -> p.skipChildren();
+            }
+        }
+        return item;
+    }
+
+    private static String text(JsonParser p, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : p.getValueAsString();
+    }
+
+    private static Double number(JsonParser p, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getDoubleValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            try {
+                return Double.valueOf(p.getText());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    /**
+     * Reads the pictures array and keeps only the first URL (the one shown in the dashboard).
+     */
+    private static List<MlItem.Picture> firstPicture(JsonParser p, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        String url = null;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            if (url != null) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken fieldValue = p.nextToken();
+                if ("url".equals(field) && url == null) {
+                    url = text(p, fieldValue);
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        // Current token is END_ARRAY (or a non-object element, which ML does not send)
+        if (p.currentToken() != JsonToken.END_ARRAY) {
+            p.skipChildren();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                p.skipChildren();
+            }
+        }
+        return url != null ? List.of(new MlItem.Picture(url)) : null;
+    }
+}
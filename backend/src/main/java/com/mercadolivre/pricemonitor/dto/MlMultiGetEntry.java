@@ -0,0 +1,29 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a Mercado Livre multi-get response (/items?ids=A,B,C).
+ *
+ * Example:
+ * [
+ *   { "code": 200, "body": { "id": "MLB123", "title": "...", "price": 99.9 } },
+ *   { "code": 404, "body": { "id": "MLB456", "message": "Item not found" } }
+ * ]
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MlMultiGetEntry {
+
+    @JsonProperty("code")
+    private Integer code;
+
+    @JsonProperty("body")
+    private MlItem body;
+}
@@ -15,6 +15,10 @@ import lombok.NoArgsConstructor;
  *   "price": 1234.56,
  *   "imageUrl": "https://..."
  * }
+ *
+ * The batch endpoint (/scrape/batch) streams one of these per line (NDJSON),
+ * with "url" set to the requested URL. A URL the scraper could not resolve comes back
+ * as {"url": ..., "error": ...} instead.
  */
 @Data
 @NoArgsConstructor
@@ -45,11 +49,36 @@ public class ScrapeResponse {
     private Integer discountPercent;
 
     /**
-     * Internal field used to track which product this response belongs to during async updates.
-     * It is not part of the JSON response from the scraper.
+     * URL this response belongs to. Echoed back by the scraper's batch endpoint
+     * so streamed results can be matched to their requests.
+     */
+    @JsonProperty("url")
+    private String url;
+
+    /**
+     * Internal field recording which source produced this response (ML_API or SCRAPER).
+     * Used for the per-cycle performance report; not part of the scraper JSON.
      */
     @JsonIgnore
-    private Long productIdForUpdate;
+    private String source;
+
+    /**
+     * Set by the batch endpoint when this URL failed; the other fields are then empty.
+     */
+    @JsonProperty("error")
+    private String error;
+
+    /**
+     * Internal field: milliseconds from this URL's own dispatch (its scraper batch
+     * or its ML API call) until the response arrived.
+     */
+    @JsonIgnore
+    private Long latencyMs;
+
+    public ScrapeResponse(String title, Double price, String imageUrl, Double originalPrice,
+                          Integer discountPercent, String url, String source) {
+        this(title, price, imageUrl, originalPrice, discountPercent, url, source, null, null);
+    }
 
     @Override
     public String toString() {
@@ -65,5 +94,16 @@ public class ScrapeResponse {
     public boolean isValid() {
         return title != null && !title.isBlank() && price != null && price > 0;
     }
+
+    /**
+     * Price-only responses (frequent refresh tier) carry no title or image.
+     */
+    public boolean hasPrice() {
+        return price != null && price > 0;
+    }
+
+    public boolean hasMetadata() {
+        return title != null && !title.isBlank();
+    }
 }
 
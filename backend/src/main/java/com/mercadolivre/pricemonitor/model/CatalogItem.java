@@ -0,0 +1,96 @@
+package com.mercadolivre.pricemonitor.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Mercado Livre listing, stored once however many users monitor it.
+ *
+ * Holds everything that comes from scraping (title, image, prices, check times) and owns
+ * the price history. What is specific to a user (URL they pasted, notification preferences)
+ * lives in their subscription, the {@link Product}. The update cycle fetches each catalog
+ * item once and fans the result out to its subscribers.
+ */
+@Entity
+@Table(name = "catalog_items",
+        uniqueConstraints = @UniqueConstraint(name = "uq_catalog_items_listing_key", columnNames = "listing_key"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_items_seq")
+    @SequenceGenerator(name = "catalog_items_seq", sequenceName = "catalog_items_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Canonical listing key (see ListingKeys), unique: one row per listing.
+     */
+    @Column(name = "listing_key", nullable = false, length = 2048)
+    private String listingKey;
+
+    /**
+     * URL the listing is scraped from (the one pasted by its first subscriber).
+     */
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "image_url", length = 2048)
+    private String imageUrl;
+
+    @Column(name = "current_price")
+    private Double currentPrice;
+
+    @Column(name = "last_price")
+    private Double lastPrice;
+
+    /**
+     * Original price before discount (preço riscado); null without an active promotion.
+     */
+    @Column(name = "original_price")
+    private Double originalPrice;
+
+    /**
+     * Discount percentage (e.g., 15 for 15% OFF); null without an active promotion.
+     */
+    @Column(name = "discount_percent")
+    private Integer discountPercent;
+
+    @Column(name = "last_checked_at")
+    private LocalDateTime lastCheckedAt;
+
+    /**
+     * When the last price_history row was written, so the periodic history write
+     * can be decided without querying price_history.
+     */
+    @Column(name = "last_history_at")
+    private LocalDateTime lastHistoryAt;
+
+    /**
+     * Last time title and image were refreshed (full metadata fetch).
+     */
+    @Column(name = "metadata_refreshed_at")
+    private LocalDateTime metadataRefreshedAt;
+
+    /**
+     * PENDING (first scrape in progress), ACTIVE (scraped successfully), ERROR (scraping failed)
+     */
+    @Column(name = "status")
+    private String status = "PENDING";
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.mercadolivre.pricemonitor.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cached mapping of a Mercado Livre catalog page ({@code /p/MLB...}) to the item
+ * currently winning its buy box. Lets catalog links use the item API instead of
+ * the scraper; rows are re-resolved after a TTL since the winner changes.
+ */
+@Entity
+@Table(name = "catalog_resolutions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogResolution {
+
+    @Id
+    @Column(name = "catalog_id", length = 32)
+    private String catalogId;
+
+    @Column(name = "item_id", nullable = false, length = 32)
+    private String itemId;
+
+    @Column(name = "resolved_at", nullable = false)
+    private LocalDateTime resolvedAt;
+}
@@ -1,9 +1,12 @@
 package com.mercadolivre.pricemonitor.model;
 
+import com.mercadolivre.pricemonitor.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -13,6 +16,8 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "ml_tokens")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ML_TOKENS_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -70,7 +75,14 @@ public class MercadoLivreToken {
      * Verifica se o token vai expirar em breve (5 minutos).
      */
     public boolean isExpiringSoon() {
+        return isExpiringWithin(5);
+    }
+
+    /**
+     * Verifica se o token expira dentro do número de minutos informado.
+     */
+    public boolean isExpiringWithin(long minutes) {
         if (expiresAt == null) return true;
-        return LocalDateTime.now().plusMinutes(5).isAfter(expiresAt);
+        return LocalDateTime.now().plusMinutes(minutes).isAfter(expiresAt);
     }
 }
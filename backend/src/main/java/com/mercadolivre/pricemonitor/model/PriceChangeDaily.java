@@ -0,0 +1,65 @@
+package com.mercadolivre.pricemonitor.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Rollup of real price changes per product, day and hour of day, read by the analytics
+ * dashboard instead of price_history. Incremented when a change is recorded and
+ * recomputed from price_history by the nightly reconcile (PriceChangeRollupService).
+ */
+@Entity
+@Table(name = "price_change_daily")
+@IdClass(PriceChangeDaily.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceChangeDaily implements Persistable<PriceChangeDaily.Key> {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "change_date")
+    private LocalDate changeDate;
+
+    @Id
+    @Column(name = "change_hour")
+    private Integer changeHour;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_count", nullable = false)
+    private Long changeCount;
+
+    @Override
+    public Key getId() {
+        return new Key(productId, changeDate, changeHour);
+    }
+
+    /**
+     * Rows are only inserted through save(); counts change with bulk updates. Always new,
+     * so saving does not SELECT the row first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private LocalDate changeDate;
+        private Integer changeHour;
+    }
+}
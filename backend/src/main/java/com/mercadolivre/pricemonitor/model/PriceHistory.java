@@ -7,25 +7,26 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 /**
- * Entity representing a historical price record for a product.
+ * Entity representing a historical price record of a catalog item (shared by its subscribers).
  */
 @Entity
 @Table(name = "price_history")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = "product")
-@EqualsAndHashCode(exclude = "product")
+@ToString(exclude = "catalogItem")
+@EqualsAndHashCode(exclude = "catalogItem")
 public class PriceHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "price_history_seq")
+    @SequenceGenerator(name = "price_history_seq", sequenceName = "price_history_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "product_id", nullable = false)
+    @JoinColumn(name = "catalog_item_id", nullable = false)
     @JsonIgnore
-    private Product product;
+    private CatalogItem catalogItem;
 
     @Column(nullable = false)
     private Double price;
@@ -33,13 +34,35 @@ public class PriceHistory {
     @Column(name = "recorded_at", nullable = false)
     private LocalDateTime recordedAt;
 
+    /**
+     * Price of the item's previous history row (null for its first row).
+     */
+    @Column(name = "previous_price")
+    @JsonIgnore
+    private Double previousPrice;
+
+    /**
+     * True when the price differs from the previous row, i.e. this row is a real change.
+     * Set at insert time so analytics do not have to find the previous row again.
+     */
+    @Column(name = "is_change", nullable = false)
+    @JsonIgnore
+    private Boolean isChange = false;
+
     @PrePersist
     protected void onCreate() {
         this.recordedAt = LocalDateTime.now();
     }
 
-    public PriceHistory(Product product, Double price) {
-        this.product = product;
+    public PriceHistory(CatalogItem catalogItem, Double price) {
+        this.catalogItem = catalogItem;
+        this.price = price;
+    }
+
+    public PriceHistory(CatalogItem catalogItem, Double price, Double previousPrice, boolean isChange) {
+        this.catalogItem = catalogItem;
         this.price = price;
+        this.previousPrice = previousPrice;
+        this.isChange = isChange;
     }
 }
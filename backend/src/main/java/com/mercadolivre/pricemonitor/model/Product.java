@@ -5,66 +5,45 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
- * Entity representing a monitored product from Mercado Livre.
- * 
+ * A product monitored by a user: their subscription to a {@link CatalogItem}.
+ *
+ * Only what belongs to the user is stored here (the URL they pasted, notification
+ * preferences). Name, image, prices, status and check times are shared by every
+ * subscriber of the listing and are read from the catalog item; the getters below
+ * keep them in the API's product JSON.
+ *
  * Fields:
- * - id: Unique identifier
- * - name: Product title (extracted from scraping)
- * - url: Mercado Livre product URL
- * - imageUrl: Product image URL
- * - currentPrice: Latest scraped price
- * - lastPrice: Previous price (before last update)
- * - lastCheckedAt: Timestamp of last successful price check
- * - priceHistory: Historical prices for graphing
+ * - id: Unique identifier (the product id used by the API, notifications and analytics)
+ * - url: Mercado Livre product URL, as pasted by the user
+ * - catalogItem: The listing, with its scraped state and price history
+ * - userId: Owner of the subscription
  */
 @Entity
-@Table(name = "products")
+@Table(name = "subscriptions",
+        indexes = @Index(name = "idx_subscriptions_catalog_item", columnList = "catalog_item_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uq_subscriptions_user_catalog_item",
+                columnNames = {"user_id", "catalog_item_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = "priceHistory")
-@EqualsAndHashCode(exclude = "priceHistory")
+@ToString(exclude = "catalogItem")
+@EqualsAndHashCode(exclude = "catalogItem")
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriptions_seq")
+    @SequenceGenerator(name = "subscriptions_seq", sequenceName = "subscriptions_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
-    private String name;
-
     @Column(nullable = false, length = 2048)
     private String url;
 
-    @Column(name = "image_url", length = 2048)
-    private String imageUrl;
-
-    @Column(name = "current_price")
-    private Double currentPrice;
-
-    @Column(name = "last_price")
-    private Double lastPrice;
-    
-    /**
-     * Original price before discount (preço riscado).
-     * If null, the product has no active promotion.
-     */
-    @Column(name = "original_price")
-    private Double originalPrice;
-    
-    /**
-     * Discount percentage (e.g., 15 for 15% OFF).
-     * If null, the product has no active promotion.
-     */
-    @Column(name = "discount_percent")
-    private Integer discountPercent;
-
-    @Column(name = "last_checked_at")
-    private LocalDateTime lastCheckedAt;
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "catalog_item_id", nullable = false)
+    @JsonIgnore
+    private CatalogItem catalogItem;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -78,16 +57,6 @@ public class Product {
     @Column(name = "notify_on_price_increase")
     private Boolean notifyOnPriceIncrease = true;
 
-    /**
-     * Product status: PENDING (scraping in progress), ACTIVE (scraped successfully), ERROR (scraping failed)
-     */
-    @Column(name = "status")
-    private String status = "PENDING";
-
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    @JsonIgnore
-    private List<PriceHistory> priceHistory = new ArrayList<>();
-
     /**
      * Set creation timestamp before persisting.
      */
@@ -95,4 +64,41 @@ public class Product {
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
+
+    @JsonIgnore
+    public String getListingKey() {
+        return catalogItem != null ? catalogItem.getListingKey() : null;
+    }
+
+    public String getName() {
+        return catalogItem != null ? catalogItem.getName() : null;
+    }
+
+    public String getImageUrl() {
+        return catalogItem != null ? catalogItem.getImageUrl() : null;
+    }
+
+    public Double getCurrentPrice() {
+        return catalogItem != null ? catalogItem.getCurrentPrice() : null;
+    }
+
+    public Double getLastPrice() {
+        return catalogItem != null ? catalogItem.getLastPrice() : null;
+    }
+
+    public Double getOriginalPrice() {
+        return catalogItem != null ? catalogItem.getOriginalPrice() : null;
+    }
+
+    public Integer getDiscountPercent() {
+        return catalogItem != null ? catalogItem.getDiscountPercent() : null;
+    }
+
+    public LocalDateTime getLastCheckedAt() {
+        return catalogItem != null ? catalogItem.getLastCheckedAt() : null;
+    }
+
+    public String getStatus() {
+        return catalogItem != null ? catalogItem.getStatus() : null;
+    }
 }
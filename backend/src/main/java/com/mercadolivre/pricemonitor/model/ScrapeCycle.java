@@ -0,0 +1,81 @@
+package com.mercadolivre.pricemonitor.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Performance report of one price update cycle.
+ * One row is written at the end of every cycle so regressions and capacity
+ * trends can be spotted without digging through logs.
+ */
+@Entity
+@Table(name = "scrape_cycles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrapeCycle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "product_count")
+    private Integer productCount;
+
+    @Column(name = "distinct_listings")
+    private Integer distinctListings;
+
+    @Column(name = "success_count")
+    private Integer successCount;
+
+    @Column(name = "unchanged_count")
+    private Integer unchangedCount;
+
+    @Column(name = "failed_count")
+    private Integer failedCount;
+
+    /**
+     * Number of responses per source (ML_API, SCRAPER).
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "requests_by_source")
+    private Map<String, Integer> requestsBySource;
+
+    @Column(name = "latency_p50_ms")
+    private Long latencyP50Ms;
+
+    @Column(name = "latency_p95_ms")
+    private Long latencyP95Ms;
+
+    @Column(name = "latency_p99_ms")
+    private Long latencyP99Ms;
+
+    @Column(name = "latency_max_ms")
+    private Long latencyMaxMs;
+
+    /**
+     * Number of failures per error class (exception simple name or failure kind).
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "errors_by_class")
+    private Map<String, Integer> errorsByClass;
+
+    @Column(name = "db_write_ms")
+    private Long dbWriteMs;
+
+    @Column(name = "notifications_sent")
+    private Integer notificationsSent;
+}
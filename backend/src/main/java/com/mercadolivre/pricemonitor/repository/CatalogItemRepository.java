@@ -0,0 +1,54 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.model.CatalogItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA Repository for CatalogItem entity (one row per listing).
+ */
+@Repository
+public interface CatalogItemRepository extends JpaRepository<CatalogItem, Long> {
+
+    /**
+     * Find the catalog item of a listing (by canonical listing key).
+     */
+    Optional<CatalogItem> findByListingKey(String listingKey);
+
+    /**
+     * Catalog items with at least one subscriber: the work of an update cycle.
+     */
+    @Query("SELECT c FROM CatalogItem c WHERE c.id IN (SELECT p.catalogItem.id FROM Product p)")
+    List<CatalogItem> findWatched();
+
+    /**
+     * Lightweight projection used to build the in-memory price snapshot.
+     * Columns: id, currentPrice, originalPrice, lastCheckedAt.
+     */
+    @Query("SELECT c.id, c.currentPrice, c.originalPrice, c.lastCheckedAt FROM CatalogItem c")
+    List<Object[]> findPriceSnapshotRows();
+
+    /**
+     * Bulk heartbeat: stamps last_checked_at on catalog items checked without changes.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CatalogItem c SET c.lastCheckedAt = :checkedAt WHERE c.id IN :ids")
+    int updateLastCheckedAt(@Param("ids") List<Long> ids, @Param("checkedAt") LocalDateTime checkedAt);
+
+    /**
+     * Same as {@link #updateLastCheckedAt}, for items whose title/image were re-fetched unchanged.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CatalogItem c SET c.lastCheckedAt = :checkedAt, c.metadataRefreshedAt = :checkedAt WHERE c.id IN :ids")
+    int updateLastCheckedAndMetadataRefreshedAt(@Param("ids") List<Long> ids, @Param("checkedAt") LocalDateTime checkedAt);
+}
@@ -0,0 +1,9 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.model.CatalogResolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogResolutionRepository extends JpaRepository<CatalogResolution, String> {
+}
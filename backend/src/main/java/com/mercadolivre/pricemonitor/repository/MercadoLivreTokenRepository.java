@@ -1,8 +1,12 @@
 package com.mercadolivre.pricemonitor.repository;
 
+import com.mercadolivre.pricemonitor.config.SecondLevelCacheConfig;
 import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -26,6 +30,11 @@ public interface MercadoLivreTokenRepository extends JpaRepository<MercadoLivreT
 
     /**
      * Busca token pelo usuário do sistema.
+     * Resultado em cache (invalidado a cada escrita em ml_tokens).
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ML_TOKENS_BY_USER_REGION)
+    })
     Optional<MercadoLivreToken> findByUser(com.mercadolivre.pricemonitor.model.User user);
 }
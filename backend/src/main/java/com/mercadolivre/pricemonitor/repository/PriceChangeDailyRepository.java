@@ -0,0 +1,62 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.model.PriceChangeDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rollup of price changes per product/day/hour (analytics dashboard).
+ * The "since" filters keep whole days after sinceDate and the hours from sinceHour on sinceDate.
+ */
+@Repository
+public interface PriceChangeDailyRepository extends JpaRepository<PriceChangeDaily, PriceChangeDaily.Key> {
+
+    @Modifying
+    @Query("UPDATE PriceChangeDaily r SET r.changeCount = r.changeCount + 1 "
+            + "WHERE r.productId = :productId AND r.changeDate = :date AND r.changeHour = :hour")
+    int increment(@Param("productId") Long productId, @Param("date") LocalDate date, @Param("hour") Integer hour);
+
+    @Query("SELECT COALESCE(SUM(r.changeCount), 0) FROM PriceChangeDaily r WHERE r.userId = :userId "
+            + "AND (r.changeDate > :sinceDate OR (r.changeDate = :sinceDate AND r.changeHour >= :sinceHour))")
+    Long sumForUser(@Param("userId") Long userId, @Param("sinceDate") LocalDate sinceDate, @Param("sinceHour") int sinceHour);
+
+    // Columns: changeDate, count
+    @Query("SELECT r.changeDate, SUM(r.changeCount) FROM PriceChangeDaily r WHERE r.userId = :userId "
+            + "AND (r.changeDate > :sinceDate OR (r.changeDate = :sinceDate AND r.changeHour >= :sinceHour)) "
+            + "GROUP BY r.changeDate ORDER BY r.changeDate")
+    List<Object[]> sumByDateForUser(@Param("userId") Long userId, @Param("sinceDate") LocalDate sinceDate, @Param("sinceHour") int sinceHour);
+
+    // Columns: changeHour, count
+    @Query("SELECT r.changeHour, SUM(r.changeCount) FROM PriceChangeDaily r WHERE r.userId = :userId "
+            + "AND (r.changeDate > :sinceDate OR (r.changeDate = :sinceDate AND r.changeHour >= :sinceHour)) "
+            + "GROUP BY r.changeHour ORDER BY r.changeHour")
+    List<Object[]> sumByHourForUser(@Param("userId") Long userId, @Param("sinceDate") LocalDate sinceDate, @Param("sinceHour") int sinceHour);
+
+    // Columns: productId, count (most changes first)
+    @Query("SELECT r.productId, SUM(r.changeCount) FROM PriceChangeDaily r WHERE r.userId = :userId "
+            + "AND (r.changeDate > :sinceDate OR (r.changeDate = :sinceDate AND r.changeHour >= :sinceHour)) "
+            + "GROUP BY r.productId ORDER BY SUM(r.changeCount) DESC")
+    List<Object[]> sumByProductForUser(@Param("userId") Long userId, @Param("sinceDate") LocalDate sinceDate, @Param("sinceHour") int sinceHour);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PriceChangeDaily r WHERE r.changeDate >= :from")
+    int deleteFrom(@Param("from") LocalDate from);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PriceChangeDaily r WHERE r.productId = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PriceChangeDaily r WHERE r.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,7 +1,7 @@
 package com.mercadolivre.pricemonitor.repository;
 
 import com.mercadolivre.pricemonitor.model.PriceHistory;
-import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.model.CatalogItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -15,25 +15,14 @@ import java.util.List;
 @Repository
 public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long> {
     
-    List<PriceHistory> findByProductOrderByRecordedAtDesc(Product product);
+    // O histórico é do anúncio (catalog_items), compartilhado por todos os usuários que o monitoram
+    List<PriceHistory> findByCatalogItemOrderByRecordedAtDesc(CatalogItem catalogItem);
     
-    List<PriceHistory> findTop30ByProductOrderByRecordedAtDesc(Product product);
-    
-    void deleteByProduct(Product product);
-
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM PriceHistory p WHERE p.product.id = :productId")
-    void deleteByProductId(@Param("productId") Long productId);
-
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM PriceHistory ph WHERE ph.product.id IN (SELECT p.id FROM Product p WHERE p.userId = :userId)")
-    void deleteByProductUserId(@Param("userId") Long userId);
+    List<PriceHistory> findTop30ByCatalogItemOrderByRecordedAtDesc(CatalogItem catalogItem);
 
-    // Buscar todos os IDs de histórico ordenados por produto e data
-    @Query("SELECT ph FROM PriceHistory ph ORDER BY ph.product.id, ph.recordedAt ASC")
-    List<PriceHistory> findAllOrderByProductAndDate();
+    // Buscar todos os IDs de histórico ordenados por anúncio e data
+    @Query("SELECT ph FROM PriceHistory ph ORDER BY ph.catalogItem.id, ph.recordedAt ASC")
+    List<PriceHistory> findAllOrderByCatalogItemAndDate();
     
     // Deletar por lista de IDs
     @Transactional
@@ -41,64 +30,17 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
     @Query("DELETE FROM PriceHistory ph WHERE ph.id IN :ids")
     int deleteByIds(@Param("ids") List<Long> ids);
 
-    // Analytics queries - Só contam mudanças REAIS (preço diferente do anterior, ignora primeiro registro)
-    
-    // Histórico de um produto nos últimos N dias
-    @Query("SELECT ph FROM PriceHistory ph WHERE ph.product.id = :productId AND ph.recordedAt >= :since ORDER BY ph.recordedAt ASC")
-    List<PriceHistory> findByProductIdSince(@Param("productId") Long productId, @Param("since") LocalDateTime since);
-    
-    // Total de mudanças por produto do usuário (só conta mudanças reais - ignora primeiro registro)
-    @Query(value = "SELECT ph.product_id, p.name, COUNT(*) as changes FROM price_history ph " +
-           "JOIN products p ON ph.product_id = p.id " +
-           "INNER JOIN price_history ph_prev ON ph.product_id = ph_prev.product_id AND ph_prev.id = (" +
-           "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
-           ") " +
-           "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
-           "GROUP BY ph.product_id, p.name ORDER BY changes DESC", nativeQuery = true)
-    List<Object[]> countChangesByProductForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
-    
-    // Mudanças por hora do dia (0-23) - só mudanças reais
-    @Query(value = "SELECT CAST(EXTRACT(HOUR FROM ph.recorded_at) AS INTEGER) as hour, COUNT(*) as count FROM price_history ph " +
-           "JOIN products p ON ph.product_id = p.id " +
-           "INNER JOIN price_history ph_prev ON ph.product_id = ph_prev.product_id AND ph_prev.id = (" +
-           "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
-           ") " +
-           "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
-           "GROUP BY EXTRACT(HOUR FROM ph.recorded_at) ORDER BY hour", nativeQuery = true)
-    List<Object[]> countChangesByHourForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
-    
-    // Mudanças por dia da semana (1=DOM, 7=SAB) - só mudanças reais
-    // PostgreSQL: DOW retorna 0=DOM, 6=SAB, então somamos 1 para ficar igual MySQL
-    @Query(value = "SELECT CAST(EXTRACT(DOW FROM ph.recorded_at) + 1 AS INTEGER) as dayOfWeek, COUNT(*) as count FROM price_history ph " +
-           "JOIN products p ON ph.product_id = p.id " +
-           "INNER JOIN price_history ph_prev ON ph.product_id = ph_prev.product_id AND ph_prev.id = (" +
-           "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
-           ") " +
-           "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
-           "GROUP BY EXTRACT(DOW FROM ph.recorded_at) ORDER BY dayOfWeek", nativeQuery = true)
-    List<Object[]> countChangesByDayOfWeekForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
-    
-    // Mudanças por data - só mudanças reais
-    @Query(value = "SELECT CAST(ph.recorded_at AS DATE) as date, COUNT(*) as count FROM price_history ph " +
-           "JOIN products p ON ph.product_id = p.id " +
-           "INNER JOIN price_history ph_prev ON ph.product_id = ph_prev.product_id AND ph_prev.id = (" +
-           "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
-           ") " +
-           "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
-           "GROUP BY CAST(ph.recorded_at AS DATE) ORDER BY date", nativeQuery = true)
-    List<Object[]> countChangesByDateForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
-    
-    // Total de mudanças do usuário - só mudanças reais (ignora primeiro registro de cada produto)
-    @Query(value = "SELECT COUNT(*) FROM price_history ph " +
-           "JOIN products p ON ph.product_id = p.id " +
-           "INNER JOIN price_history ph_prev ON ph.product_id = ph_prev.product_id AND ph_prev.id = (" +
-           "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
-           ") " +
-           "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price", nativeQuery = true)
-    Long countTotalChangesForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    // Histórico de um anúncio nos últimos N dias
+    @Query("SELECT ph FROM PriceHistory ph WHERE ph.catalogItem.id = :catalogItemId AND ph.recordedAt >= :since ORDER BY ph.recordedAt ASC")
+    List<PriceHistory> findByCatalogItemIdSince(@Param("catalogItemId") Long catalogItemId, @Param("since") LocalDateTime since);
+    
+    // Mudanças reais (is_change, gravado na inserção) por anúncio, data e hora, desde :since.
+    // Uma única leitura de price_history, sem self-join; o filtro em recorded_at permite o
+    // partition pruning no PostgreSQL. Usado para recalcular price_change_daily.
+    // Colunas: catalog_item_id, data, hora, quantidade
+    @Query(value = "SELECT ph.catalog_item_id, CAST(ph.recorded_at AS DATE) as change_date, EXTRACT(HOUR FROM ph.recorded_at) as change_hour, COUNT(*) as changes " +
+           "FROM price_history ph " +
+           "WHERE ph.recorded_at >= :since AND ph.is_change = TRUE " +
+           "GROUP BY ph.catalog_item_id, CAST(ph.recorded_at AS DATE), EXTRACT(HOUR FROM ph.recorded_at)", nativeQuery = true)
+    List<Object[]> countChangesByCatalogItemDateAndHour(@Param("since") LocalDateTime since);
 }
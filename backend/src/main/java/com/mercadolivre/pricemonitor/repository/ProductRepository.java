@@ -1,6 +1,7 @@
 package com.mercadolivre.pricemonitor.repository;
 
 import com.mercadolivre.pricemonitor.model.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,7 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 /**
- * JPA Repository for Product entity.
+ * JPA Repository for Product entity (a user's subscription to a catalog item).
  * Provides CRUD operations and custom queries.
  */
 @Repository
@@ -27,7 +28,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * Find all products where the current price is lower than the last price.
      * Useful for finding products with price drops.
      */
-    @Query("SELECT p FROM Product p WHERE p.currentPrice < p.lastPrice")
+    @Query("SELECT p FROM Product p JOIN FETCH p.catalogItem c WHERE c.currentPrice < c.lastPrice")
     List<Product> findProductsWithPriceDrop();
 
     /**
@@ -36,9 +37,15 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsByUrl(String url);
     
     /**
-     * Find all products for a user.
+     * Find all products for a user, with their catalog items.
      */
+    @EntityGraph(attributePaths = "catalogItem")
     List<Product> findByUserId(Long userId);
+
+    /**
+     * Subscribers of a catalog item (notification fan-out).
+     */
+    List<Product> findByCatalogItemId(Long catalogItemId);
     
     /**
      * Find a product by URL and userId.
@@ -50,11 +57,33 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     boolean existsByUrlAndUserId(String url, Long userId);
     
+    /**
+     * Check if a user already monitors a catalog item.
+     */
+    boolean existsByCatalogItemIdAndUserId(Long catalogItemId, Long userId);
+
+    /**
+     * Check if anyone monitors a catalog item.
+     */
+    boolean existsByCatalogItemId(Long catalogItemId);
+
+    /**
+     * Find a user's product for a catalog item.
+     */
+    Optional<Product> findFirstByCatalogItemIdAndUserId(Long catalogItemId, Long userId);
+
     /**
      * Count products for a user.
      */
     long countByUserId(Long userId);
 
+    /**
+     * Owner, catalog item and subscription time of every product.
+     * Columns: id, userId, catalogItemId, createdAt.
+     */
+    @Query("SELECT p.id, p.userId, p.catalogItem.id, p.createdAt FROM Product p")
+    List<Object[]> findProductUserRows();
+
     /**
      * Delete all products for a user.
      */
@@ -0,0 +1,17 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.model.ScrapeCycle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScrapeCycleRepository extends JpaRepository<ScrapeCycle, Long> {
+
+    /**
+     * Most recent cycles first.
+     */
+    List<ScrapeCycle> findAllByOrderByStartedAtDesc(Pageable pageable);
+}
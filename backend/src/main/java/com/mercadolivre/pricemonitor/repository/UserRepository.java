@@ -4,6 +4,7 @@ import com.mercadolivre.pricemonitor.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +13,5 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findByVerificationToken(String token);
     Optional<User> findByResetPasswordToken(String token);
+    List<User> findByTelegramLinkCode(String code);
 }
@@ -1,28 +1,53 @@
 package com.mercadolivre.pricemonitor.service;
 
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.CatalogItem;
 import com.mercadolivre.pricemonitor.model.Product;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
  * Service dedicated to performing asynchronous and parallel product price updates.
- * This is designed to be called from the scheduler.
+ * This is designed to be called from the scheduler. Work is per catalog item (listing),
+ * however many users monitor it.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class AsyncProductUpdateService {
 
     private final ProductService productService;
     private final ScraperService scraperService;
+    private final PriceSnapshot priceSnapshot;
+    private final ScrapeCycleService scrapeCycleService;
+    private final LastCheckedWriteBehind lastCheckedWriteBehind;
+    private final long metadataRefreshHours;
+    private final int writeBatchSize;
+
+    public AsyncProductUpdateService(ProductService productService,
+                                     ScraperService scraperService,
+                                     PriceSnapshot priceSnapshot,
+                                     ScrapeCycleService scrapeCycleService,
+                                     LastCheckedWriteBehind lastCheckedWriteBehind,
+                                     @Value("${price.metadata.refresh-hours:24}") long metadataRefreshHours,
+                                     @Value("${price.update.write-batch-size:50}") int writeBatchSize) {
+        this.productService = productService;
+        this.scraperService = scraperService;
+        this.priceSnapshot = priceSnapshot;
+        this.scrapeCycleService = scrapeCycleService;
+        this.lastCheckedWriteBehind = lastCheckedWriteBehind;
+        this.metadataRefreshHours = metadataRefreshHours;
+        this.writeBatchSize = writeBatchSize;
+    }
 
     /**
      * Asynchronously updates prices for all monitored products in parallel.
@@ -30,64 +55,136 @@ public class AsyncProductUpdateService {
      */
     @Async
     public void updateAllProductsAsync() {
-        List<Product> products = productService.getAllProducts();
+        List<CatalogItem> items = productService.getWatchedCatalogItems();
 
-        if (products.isEmpty()) {
+        if (items.isEmpty()) {
             log.info("[ASYNC] No products to update.");
             return;
         }
 
-        log.info("[ASYNC] Starting parallel price update for {} products.", products.size());
+        log.info("[ASYNC] Starting parallel price update for {} listings.", items.size());
+        ScrapeCycleStats stats = new ScrapeCycleStats((int) productService.countProducts(), items.size());
 
-        // Step 1: Create a map of product ID to product
-        Map<Long, Product> productMap = products.stream()
-                .collect(Collectors.toMap(Product::getId, product -> product));
-
-        // Step 2: Asynchronously scrape all products in parallel
-        List<CompletableFuture<ScrapeResponse>> futures = products.stream()
-                .map(product -> scraperService.fetchProductData(product.getUrl())
-                        .thenApply(scrapeResponse -> {
-                            // Attach product ID to the response for context
-                            if (scrapeResponse != null) {
-                                scrapeResponse.setProductIdForUpdate(product.getId());
-                            }
-                            return scrapeResponse;
-                        }))
-                .collect(Collectors.toList());
+        // Step 1: Fetch every watched listing once (one catalog item each); scraper URLs go out in batches.
+        // Title and image change rarely, so only listings whose metadata is stale get the full fetch.
+        LocalDateTime metadataCutoff = LocalDateTime.now().minusHours(metadataRefreshHours);
+        Set<String> metadataUrls = items.stream()
+                .filter(item -> isMetadataDue(item, metadataCutoff))
+                .map(CatalogItem::getUrl)
+                .collect(Collectors.toSet());
+        Map<String, CompletableFuture<ScrapeResponse>> futuresByUrl = scraperService.fetchProductDataBatch(
+                items.stream().map(CatalogItem::getUrl).distinct().toList(), metadataUrls);
+        futuresByUrl.replaceAll((url, future) -> future.thenApply(scrapeResponse -> {
+            if (scrapeResponse != null && scrapeResponse.getLatencyMs() != null) {
+                stats.recordResponse(scrapeResponse.getSource(), scrapeResponse.getLatencyMs());
+            }
+            return scrapeResponse;
+        }));
 
-        // Step 3: Wait for all scraping operations to complete
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        // Step 2: Wait for all scraping operations to complete
+        CompletableFuture<Void> allFutures = CompletableFuture.allOf(futuresByUrl.values().toArray(new CompletableFuture[0]));
 
-        // Step 4: Process the results once all are complete
+        // Step 3: Process the results once all are complete
         allFutures.thenAccept(v -> {
-            long successCount = 0;
-            long failCount = 0;
+            long now = System.currentTimeMillis();
+            List<ProductService.ScrapedItem> changed = new ArrayList<>();
 
-            for (CompletableFuture<ScrapeResponse> future : futures) {
+            for (CatalogItem item : items) {
                 try {
-                    ScrapeResponse scrapeData = future.get(); // .get() is safe here because allOf() is complete
-                    if (scrapeData != null && scrapeData.getProductIdForUpdate() != null) {
-                        Product product = productMap.get(scrapeData.getProductIdForUpdate());
-                        if (product != null) {
-                            // Each update is in its own transaction
-                            productService.updateSingleProduct(product, scrapeData);
-                            successCount++;
-                        } else {
-                            log.error("[ASYNC] Product not found in map for ID: {}", scrapeData.getProductIdForUpdate());
-                            failCount++;
-                        }
-                    } else {
-                        failCount++;
+                    ScrapeResponse scrapeData = futuresByUrl.get(item.getUrl()).get(); // safe: allOf() is complete
+                    if (scrapeData == null) {
+                        stats.recordError("NoResponse");
+                        continue;
+                    }
+                    if (!scrapeData.hasPrice()) {
+                        stats.recordError("InvalidData");
+                        continue;
+                    }
+                    // Same price as the snapshot and no heartbeat or metadata refresh due: only last_checked_at moves
+                    boolean metadataUpdate = scrapeData.hasMetadata() && isMetadataDue(item, metadataCutoff);
+                    if (!metadataUpdate && priceSnapshot.isUnchanged(item.getId(),
+                            scrapeData.getPrice(), scrapeData.getOriginalPrice(), now)) {
+                        lastCheckedWriteBehind.markChecked(item.getId(), false);
+                        stats.recordUnchanged();
+                        continue;
                     }
+                    changed.add(new ProductService.ScrapedItem(item, scrapeData));
                 } catch (Exception e) {
                     log.error("[ASYNC] Error processing a scrape result: {}", e.getMessage());
-                    failCount++;
+                    stats.recordError(e.getClass().getSimpleName());
                 }
             }
-            log.info("[ASYNC] Parallel price update complete. Success: {}, Failed: {}", successCount, failCount);
+            writeChanges(changed, stats);
+            log.info("[ASYNC] Parallel price update complete. Success: {}, Unchanged: {}, Failed: {}",
+                    stats.getSuccessCount(), stats.getUnchangedCount(), stats.getFailedCount());
+            scrapeCycleService.record(stats);
         }).exceptionally(ex -> {
             log.error("[ASYNC] A critical error occurred during the parallel update process.", ex);
             return null;
         });
     }
+
+    /**
+     * Force update of one product's catalog item, outside the scheduled cycle.
+     * A listing that never got its first price still goes through the first-scrape path;
+     * otherwise the result is applied by ProductService.updateCatalogItem, so a price
+     * change is kept in the history, counted and notified exactly like in the cycle.
+     */
+    @Async
+    public void forceUpdateAsync(Product product) {
+        CatalogItem item = product.getCatalogItem();
+        if (item.getCurrentPrice() == null) {
+            productService.updateSingleProductAsync(product);
+            return;
+        }
+        try {
+            ScrapeResponse scrapeData = scraperService.fetchProductData(item.getUrl()).get();
+            CatalogItem fresh = productService.getCatalogItemById(item.getId()).orElse(null);
+            if (fresh == null) {
+                log.warn("[ASYNC] Catalog item {} not found after force update scrape", item.getId());
+                return;
+            }
+            productService.updateCatalogItem(fresh, scrapeData);
+        } catch (Exception e) {
+            log.error("[ASYNC] Force update error for catalog item {}: {}", item.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the changed catalog items in chunks of {@code price.update.write-batch-size},
+     * one transaction per chunk. A chunk that fails is retried item by item
+     * so one bad row does not lose the rest of the chunk. The retry reloads each item,
+     * since the rolled-back attempt already modified the in-memory entities.
+     */
+    private void writeChanges(List<ProductService.ScrapedItem> changed, ScrapeCycleStats stats) {
+        for (int i = 0; i < changed.size(); i += writeBatchSize) {
+            List<ProductService.ScrapedItem> chunk = changed.subList(i, Math.min(i + writeBatchSize, changed.size()));
+            long writeStart = System.nanoTime();
+            try {
+                int notified = productService.updateCatalogItems(chunk);
+                stats.recordBatchSuccess(chunk.size(), System.nanoTime() - writeStart, notified);
+            } catch (Exception e) {
+                log.warn("[ASYNC] Batch write of {} listings failed ({}), retrying one by one", chunk.size(), e.getMessage());
+                for (ProductService.ScrapedItem update : chunk) {
+                    try {
+                        CatalogItem fresh = productService.getCatalogItemById(update.item().getId()).orElse(null);
+                        if (fresh == null) {
+                            stats.recordError("ProductDeleted");
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        int notified = productService.updateCatalogItem(fresh, update.scrapeData());
+                        stats.recordSuccess(System.nanoTime() - start, notified);
+                    } catch (Exception single) {
+                        log.error("[ASYNC] Error updating catalog item {}: {}", update.item().getId(), single.getMessage());
+                        stats.recordError(single.getClass().getSimpleName());
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isMetadataDue(CatalogItem item, LocalDateTime cutoff) {
+        return item.getMetadataRefreshedAt() == null || item.getMetadataRefreshedAt().isBefore(cutoff);
+    }
 }
@@ -1,10 +1,10 @@
 package com.mercadolivre.pricemonitor.service;
 
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.CatalogItem;
 import com.mercadolivre.pricemonitor.model.PriceHistory;
-import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.CatalogItemRepository;
 import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
-import com.mercadolivre.pricemonitor.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -22,70 +22,74 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class AsyncScrapingService {
 
-    private final ProductRepository productRepository;
+    private final CatalogItemRepository catalogItemRepository;
     private final PriceHistoryRepository priceHistoryRepository;
     private final ScraperService scraperService;
+    private final PriceSnapshot priceSnapshot;
 
     /**
-     * Scrape product data in background thread (non-blocking).
+     * Scrape a catalog item's data in background thread (non-blocking), for all of its subscribers.
      * This method runs asynchronously because it's called from another bean.
      */
     @Async
-    public void scrapeProductInBackground(Long productId, String url) {
+    public void scrapeCatalogItemInBackground(Long itemId, String url) {
         try {
-            log.info("🔄 [ASYNC] Starting background scrape for product ID {}: {}", productId, url);
+            log.info("🔄 [ASYNC] Starting background scrape for catalog item ID {}: {}", itemId, url);
             
             ScrapeResponse scrapeData = scraperService.fetchProductData(url).get();
 
-            // Buscar produto do banco (pode ter sido deletado enquanto aguardava)
-            Product product = productRepository.findById(productId).orElse(null);
-            if (product == null) {
-                log.warn("⚠️ Product {} was deleted while scraping", productId);
+            // Buscar anúncio do banco
+            CatalogItem item = catalogItemRepository.findById(itemId).orElse(null);
+            if (item == null) {
+                log.warn("⚠️ Catalog item {} not found after scraping", itemId);
                 return;
             }
 
             if (scrapeData == null || !scrapeData.isValid()) {
-                log.error("❌ Background scrape failed for product {}: invalid data", productId);
-                product.setStatus("ERROR");
-                product.setName("Erro ao carregar - " + extractSimpleName(product.getName()));
-                productRepository.save(product);
+                log.error("❌ Background scrape failed for catalog item {}: invalid data", itemId);
+                item.setStatus("ERROR");
+                item.setName("Erro ao carregar - " + extractSimpleName(item.getName()));
+                catalogItemRepository.save(item);
                 return;
             }
 
             // Atualizar com dados do scraper
-            product.setName(scrapeData.getTitle());
-            product.setImageUrl(scrapeData.getImageUrl());
-            product.setCurrentPrice(scrapeData.getPrice());
-            product.setOriginalPrice(scrapeData.getOriginalPrice());
-            product.setDiscountPercent(scrapeData.getDiscountPercent());
-            product.setLastCheckedAt(LocalDateTime.now());
-            product.setStatus("ACTIVE");
-            productRepository.save(product);
+            item.setName(scrapeData.getTitle());
+            item.setImageUrl(scrapeData.getImageUrl());
+            item.setCurrentPrice(scrapeData.getPrice());
+            item.setOriginalPrice(scrapeData.getOriginalPrice());
+            item.setDiscountPercent(scrapeData.getDiscountPercent());
+            item.setLastCheckedAt(LocalDateTime.now());
+            item.setMetadataRefreshedAt(LocalDateTime.now());
+            item.setLastHistoryAt(LocalDateTime.now());
+            item.setStatus("ACTIVE");
+            catalogItemRepository.save(item);
+            priceSnapshot.recordAfterCommit(itemId, scrapeData.getPrice(), scrapeData.getOriginalPrice());
 
             // Salvar primeiro registro no histórico
-            PriceHistory history = new PriceHistory(product, scrapeData.getPrice());
+            PriceHistory history = new PriceHistory(item, scrapeData.getPrice());
             priceHistoryRepository.save(history);
 
             // Log com informação de desconto se houver
             if (scrapeData.getDiscountPercent() != null && scrapeData.getDiscountPercent() > 0) {
-                log.info("✅ [ASYNC] Background scrape completed for product {}: '{}' at R$ {} (🏷️ {}% OFF, original: R$ {})", 
-                    productId, product.getName(), product.getCurrentPrice(), 
+                log.info("✅ [ASYNC] Background scrape completed for item {}: '{}' at R$ {} (🏷️ {}% OFF, original: R$ {})", 
+                    itemId, item.getName(), item.getCurrentPrice(), 
                     scrapeData.getDiscountPercent(), scrapeData.getOriginalPrice());
             } else {
-                log.info("✅ [ASYNC] Background scrape completed for product {}: '{}' at R$ {}", 
-                    productId, product.getName(), product.getCurrentPrice());
+                log.info("✅ [ASYNC] Background scrape completed for item {}: '{}' at R$ {}", 
+                    itemId, item.getName(), item.getCurrentPrice());
             }
 
         } catch (Exception e) {
-            log.error("❌ [ASYNC] Background scrape error for product {}: {}", productId, e.getMessage());
+            log.error("❌ [ASYNC] Background scrape error for item {}: {}", itemId, e.getMessage());
             try {
-                Product product = productRepository.findById(productId).orElse(null);
-                if (product != null) {
-                    product.setStatus("ERROR");
-                    productRepository.save(product);
+                CatalogItem item = catalogItemRepository.findById(itemId).orElse(null);
+                if (item != null) {
+                    item.setStatus("ERROR");
+                    catalogItemRepository.save(item);
                 }
             } catch (Exception ex) {
-                log.error("Failed to update product status: {}", ex.getMessage());
+                log.error("Failed to update item status: {}", ex.getMessage());
             }
         }
     }
@@ -0,0 +1,96 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.CatalogResolution;
+import com.mercadolivre.pricemonitor.repository.CatalogResolutionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps Mercado Livre catalog ids ({@code /p/MLB...} links) to the item currently
+ * winning the buy box, so catalog products can be checked through the item API.
+ *
+ * Lookups go memory → catalog_resolutions table → /products/{id}. A resolution is
+ * reused for {@code mercadolivre.catalog.ttl-hours}; concurrent lookups of the same
+ * catalog share one request.
+ */
+@Component
+@Slf4j
+public class CatalogResolver {
+
+    private final CatalogResolutionRepository repository;
+    private final MercadoLivreApiClient apiClient;
+    private final MercadoLivreTokenPool tokenPool;
+    private final long ttlHours;
+
+    private final Map<String, CatalogResolution> cache = new ConcurrentHashMap<>();
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+    public CatalogResolver(CatalogResolutionRepository repository,
+                           MercadoLivreApiClient apiClient,
+                           MercadoLivreTokenPool tokenPool,
+                           @Value("${mercadolivre.catalog.ttl-hours:6}") long ttlHours) {
+        this.repository = repository;
+        this.apiClient = apiClient;
+        this.tokenPool = tokenPool;
+        this.ttlHours = ttlHours;
+    }
+
+    /**
+     * Item id currently behind a catalog id.
+     *
+     * @return The item id, empty when the catalog has no buy box winner, or an error signal.
+     */
+    public Mono<String> resolve(String catalogId) {
+        CatalogResolution cached = cache.get(catalogId);
+        if (isFresh(cached)) {
+            return Mono.just(cached.getItemId());
+        }
+        return inFlight.computeIfAbsent(catalogId, id -> load(id)
+                .doFinally(signal -> inFlight.remove(id))
+                .cache());
+    }
+
+    private Mono<String> load(String catalogId) {
+        // JPA is blocking: table lookup and save run on boundedElastic
+        return Mono.fromCallable(() -> repository.findById(catalogId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(stored -> {
+                    if (stored.isPresent() && isFresh(stored.get())) {
+                        cache.put(catalogId, stored.get());
+                        return Mono.just(stored.get().getItemId());
+                    }
+                    return fetch(catalogId);
+                });
+    }
+
+    private Mono<String> fetch(String catalogId) {
+        MercadoLivreTokenPool.PooledToken token = tokenPool.acquire();
+        if (token == null) {
+            return Mono.error(new IllegalStateException("Nenhum token do Mercado Livre disponível"));
+        }
+        return apiClient.getCatalogBuyBoxItemId(catalogId, token.accessToken())
+                .doOnError(WebClientResponseException.class,
+                        error -> tokenPool.reportFailure(token, error.getStatusCode().value()))
+                .publishOn(Schedulers.boundedElastic())
+                .map(itemId -> {
+                    CatalogResolution resolution = new CatalogResolution(catalogId, itemId, LocalDateTime.now());
+                    repository.save(resolution);
+                    cache.put(catalogId, resolution);
+                    log.info("🔗 Catálogo {} resolvido para o item {}", catalogId, itemId);
+                    return itemId;
+                });
+    }
+
+    private boolean isFresh(CatalogResolution resolution) {
+        return resolution != null
+                && resolution.getResolvedAt().isAfter(LocalDateTime.now().minusHours(ttlHours));
+    }
+}
@@ -0,0 +1,48 @@
+package com.mercadolivre.pricemonitor.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of validators (ETag / Last-Modified) and the parsed body
+ * of previous responses, used to send conditional requests and reuse the
+ * cached copy on 304 Not Modified.
+ */
+public class ConditionalResponseCache<T> {
+
+    public record Entry<T>(String etag, String lastModified, T value) {
+        public boolean hasValidator() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    private final Map<String, Entry<T>> entries;
+
+    public ConditionalResponseCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Entry<T> get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores the response only when it carries a validator; otherwise it could never be revalidated.
+     */
+    public synchronized void put(String key, String etag, String lastModified, T value) {
+        if (etag == null && lastModified == null) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry<>(etag, lastModified, value));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
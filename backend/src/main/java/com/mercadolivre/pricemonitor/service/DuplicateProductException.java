@@ -0,0 +1,20 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.Product;
+
+/**
+ * Exception thrown when the user already monitors the listing being added.
+ */
+public class DuplicateProductException extends RuntimeException {
+
+    private final Product existing;
+
+    public DuplicateProductException(Product existing) {
+        super("Produto já adicionado");
+        this.existing = existing;
+    }
+
+    public Product getExisting() {
+        return existing;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.repository.CatalogItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for the last_checked_at of catalog items whose content did not change.
+ *
+ * Instead of one entity UPDATE per checked item, ids are collected here and stamped
+ * every {@code price.last-checked.flush-ms} with chunked {@code UPDATE ... WHERE id IN (...)}
+ * statements. The stamp is the flush time, at most one flush interval after the check.
+ * Items that also had their title/image re-fetched get metadata_refreshed_at stamped too.
+ */
+@Component
+@Slf4j
+public class LastCheckedWriteBehind {
+
+    private final CatalogItemRepository catalogItemRepository;
+    private final int chunkSize;
+
+    /** Catalog item id → whether the metadata was refreshed as well. */
+    private final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+
+    public LastCheckedWriteBehind(CatalogItemRepository catalogItemRepository,
+                                  @Value("${price.last-checked.chunk-size:500}") int chunkSize) {
+        this.catalogItemRepository = catalogItemRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Queues a checked catalog item for the next flush.
+     */
+    public void markChecked(long itemId, boolean metadataRefreshed) {
+        pending.merge(itemId, metadataRefreshed, Boolean::logicalOr);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes the queued stamps. Ids marked while flushing stay queued for the next run.
+     */
+    @Scheduled(fixedDelayString = "${price.last-checked.flush-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> checked = new ArrayList<>();
+        List<Long> refreshed = new ArrayList<>();
+        for (Long id : pending.keySet()) {
+            Boolean metadata = pending.remove(id);
+            if (metadata != null) {
+                (metadata ? refreshed : checked).add(id);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (int i = 0; i < checked.size(); i += chunkSize) {
+                catalogItemRepository.updateLastCheckedAt(checked.subList(i, Math.min(i + chunkSize, checked.size())), now);
+            }
+            for (int i = 0; i < refreshed.size(); i += chunkSize) {
+                catalogItemRepository.updateLastCheckedAndMetadataRefreshedAt(
+                        refreshed.subList(i, Math.min(i + chunkSize, refreshed.size())), now);
+            }
+            log.debug("🕒 last_checked_at atualizado para {} anúncios", checked.size() + refreshed.size());
+        } catch (Exception e) {
+            // Only a timestamp is lost; the next check of each item queues it again
+            log.warn("⚠️ Falha ao gravar last_checked_at de {} anúncios: {}",
+                    checked.size() + refreshed.size(), e.getMessage());
+        }
+    }
+}
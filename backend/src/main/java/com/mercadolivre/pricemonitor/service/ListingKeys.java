@@ -0,0 +1,149 @@
+package com.mercadolivre.pricemonitor.service;
+
+/**
+ * Single canonicalizer for product URLs.
+ *
+ * Replaces the split/regex based helpers that were spread over ProductService,
+ * ScraperService and MercadoLivreService. Every method is one left-to-right scan
+ * without regular expressions; the only allocation is the returned string.
+ *
+ * The listing key identifies what is being monitored, independent of tracking
+ * parameters and URL variants:
+ * <ul>
+ *   <li>{@code MLB1234567890} for a Mercado Livre item (any MLx site prefix)</li>
+ *   <li>{@code p/MLB19615318} for a Mercado Livre catalog page ({@code /p/MLB...})</li>
+ *   <li>the canonical URL for anything else</li>
+ * </ul>
+ */
+public final class ListingKeys {
+
+    /** Prefix of catalog listing keys. */
+    public static final String CATALOG_PREFIX = "p/";
+
+    private static final String HTTPS = "https://";
+
+    private ListingKeys() {
+    }
+
+    /**
+     * Listing key of a product URL (see class doc), or null for a null URL.
+     */
+    public static String of(String url) {
+        if (url == null) {
+            return null;
+        }
+        String catalogId = catalogId(url);
+        if (catalogId != null) {
+            return CATALOG_PREFIX + catalogId;
+        }
+        String itemId = itemId(url);
+        return itemId != null ? itemId : canonicalUrl(url);
+    }
+
+    /**
+     * URL without query string, fragment or surrounding whitespace. A URL pasted twice
+     * ({@code https://a...https://a...}) is cut at the second scheme.
+     */
+    public static String canonicalUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        int length = url.length();
+        int start = 0;
+        while (start < length && url.charAt(start) <= ' ') {
+            start++;
+        }
+        int firstScheme = url.startsWith(HTTPS, start) ? start : -1;
+        int end = length;
+        for (int i = start; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+            if (c == 'h' && i > start && firstScheme >= 0 && url.startsWith(HTTPS, i)) {
+                end = i;
+                break;
+            }
+        }
+        while (end > start && url.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return start == 0 && end == length ? url : url.substring(start, end);
+    }
+
+    /**
+     * Mercado Livre item id ({@code MLB1234567890}) found in the URL, accepting the
+     * {@code MLB-1234567890} form used in product slugs. A catalog link ({@code /p/MLB...})
+     * yields the catalog id, as ML item and catalog ids share the same format.
+     */
+    public static String itemId(String url) {
+        if (url == null) {
+            return null;
+        }
+        String catalogId = catalogId(url);
+        if (catalogId != null) {
+            return catalogId;
+        }
+        int length = url.length();
+        for (int i = 0; i + 3 < length; i++) {
+            if (url.charAt(i) != 'M' || url.charAt(i + 1) != 'L' || !isUpper(url.charAt(i + 2))) {
+                continue;
+            }
+            int digits = i + 3;
+            if (url.charAt(digits) == '-') {
+                digits++;
+            }
+            int end = digits;
+            while (end < length && isDigit(url.charAt(end))) {
+                end++;
+            }
+            if (end > digits) {
+                return digits == i + 3
+                        ? url.substring(i, end)
+                        : url.substring(i, i + 3).concat(url.substring(digits, end));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Catalog id of a {@code /p/MLB19615318} link, or null if the URL is not a catalog link.
+     */
+    public static String catalogId(String url) {
+        if (url == null) {
+            return null;
+        }
+        int length = url.length();
+        for (int i = url.indexOf("/p/ML"); i >= 0; i = url.indexOf("/p/ML", i + 1)) {
+            int site = i + 5;
+            if (site >= length || !isUpper(url.charAt(site))) {
+                continue;
+            }
+            int end = site + 1;
+            while (end < length && isDigit(url.charAt(end))) {
+                end++;
+            }
+            if (end > site + 1) {
+                return url.substring(i + 3, end);
+            }
+        }
+        return null;
+    }
+
+    public static boolean isCatalogKey(String listingKey) {
+        return listingKey != null && listingKey.startsWith(CATALOG_PREFIX);
+    }
+
+    public static boolean isMercadoLivreUrl(String url) {
+        return url != null && (url.contains("mercadolivre.com.br") || url.contains("mercadolibre.com"));
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
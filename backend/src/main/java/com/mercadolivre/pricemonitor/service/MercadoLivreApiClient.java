@@ -0,0 +1,189 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.MlCatalogProduct;
+import com.mercadolivre.pricemonitor.dto.MlItem;
+import com.mercadolivre.pricemonitor.dto.MlMultiGetEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Non-blocking client for the Mercado Livre items API.
+ * Runs on the pooled {@code mercadoLivreWebClient}; no thread is held while waiting for ML.
+ *
+ * Multi-gets are conditional: the ETag / Last-Modified of each response is kept
+ * with every parsed item, sent back as If-None-Match / If-Modified-Since,
+ * and a 304 reuses the cached copies without downloading or parsing the items again.
+ * The share of 304s is published as {@code mercadolivre.conditional.not_modified.ratio}.
+ */
+@Component
+@Slf4j
+public class MercadoLivreApiClient {
+
+    private static final ParameterizedTypeReference<List<MlMultiGetEntry>> MULTI_GET_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    /**
+     * Attribute filter for the frequent price-only tier: drops title, pictures,
+     * attributes and descriptions from the payload.
+     */
+    public static final String PRICE_ATTRIBUTES = "id,price,original_price";
+
+    private final WebClient webClient;
+    private final Duration totalTimeout;
+    private final ConditionalResponseCache<MlItem> itemCache;
+    private final Counter notModifiedCounter;
+    private final Counter modifiedCounter;
+
+    public MercadoLivreApiClient(
+            @Qualifier("mercadoLivreWebClient") WebClient mercadoLivreWebClient,
+            @Value("${mercadolivre.http.total-timeout-ms:15000}") long totalTimeoutMs,
+            @Value("${mercadolivre.conditional.max-entries:50000}") int maxCacheEntries,
+            MeterRegistry meterRegistry) {
+        this.webClient = mercadoLivreWebClient;
+        this.totalTimeout = Duration.ofMillis(totalTimeoutMs);
+        this.itemCache = new ConditionalResponseCache<>(maxCacheEntries);
+        this.notModifiedCounter = Counter.builder("mercadolivre.conditional.requests")
+                .tag("result", "not_modified")
+                .description("Conditional ML item requests answered with 304")
+                .register(meterRegistry);
+        this.modifiedCounter = Counter.builder("mercadolivre.conditional.requests")
+                .tag("result", "modified")
+                .description("ML item requests answered with a full body")
+                .register(meterRegistry);
+        Gauge.builder("mercadolivre.conditional.not_modified.ratio", this, MercadoLivreApiClient::notModifiedRatio)
+                .description("Share of ML item requests answered with 304 Not Modified")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches up to 20 items in one multi-get request.
+     * Each entry carries its own status code, so partial failures are reported per id.
+     *
+     * The cache is kept per item id. ML only returns one validator for the whole multi-get,
+     * so the request is conditional when every id was cached from one earlier response
+     * with the same validator (the sorted chunks of {@link MercadoLivreItemBatcher} repeat
+     * every cycle); a 304 then rebuilds the entries from the cached items. A chunk with
+     * any new or failed id is fetched in full and refreshes the cache of its items.
+     *
+     * @param attributes Optional attribute filter (e.g. {@link #PRICE_ATTRIBUTES}); null for the full item.
+     */
+    public Mono<List<MlMultiGetEntry>> getItems(List<String> itemIds, String accessToken, String attributes) {
+        String ids = String.join(",", itemIds);
+        List<MlItem> cached = cachedItems(itemIds, attributes);
+        ConditionalResponseCache.Entry<MlItem> validator = cached != null ? itemCache.get(cacheKey(itemIds.get(0), attributes)) : null;
+        return webClient.get()
+                .uri(uri -> {
+                    uri.path("/items").queryParam("ids", ids);
+                    if (attributes != null) {
+                        uri.queryParam("attributes", attributes);
+                    }
+                    return uri.build();
+                })
+                .headers(headers -> {
+                    headers.setBearerAuth(accessToken);
+                    if (validator != null && validator.etag() != null) {
+                        headers.setIfNoneMatch(validator.etag());
+                    } else if (validator != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, validator.lastModified());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                        notModifiedCounter.increment();
+                        return response.releaseBody().thenReturn(cached.stream()
+                                .map(item -> new MlMultiGetEntry(HttpStatus.OK.value(), item))
+                                .toList());
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        modifiedCounter.increment();
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        String etag = headers.getETag();
+                        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+                        return response.bodyToMono(MULTI_GET_TYPE)
+                                .doOnNext(entries -> store(itemIds, entries, attributes, etag, lastModified));
+                    }
+                    return response.createError();
+                })
+                .timeout(totalTimeout)
+                .doOnError(error -> log.debug("[ML_API] Multi-get of {} items failed: {}", itemIds.size(), error.getMessage()));
+    }
+
+    /**
+     * Resolves a catalog product to the id of the item currently winning its buy box.
+     *
+     * @return The item id, empty when the catalog has no active winner, or an error signal.
+     */
+    public Mono<String> getCatalogBuyBoxItemId(String catalogId, String accessToken) {
+        return webClient.get()
+                .uri("/products/{id}", catalogId)
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .retrieve()
+                .bodyToMono(MlCatalogProduct.class)
+                .timeout(totalTimeout)
+                .mapNotNull(product -> product.getBuyBoxWinner() != null ? product.getBuyBoxWinner().getItemId() : null)
+                .doOnError(error -> log.debug("[ML_API] Catalog {} failed: {}", catalogId, error.getMessage()));
+    }
+
+    public double notModifiedRatio() {
+        double total = notModifiedCounter.count() + modifiedCounter.count();
+        return total > 0 ? notModifiedCounter.count() / total : 0.0;
+    }
+
+    /**
+     * The cached items in request order, or null unless all of them share one validator.
+     */
+    private List<MlItem> cachedItems(List<String> itemIds, String attributes) {
+        List<MlItem> items = new ArrayList<>(itemIds.size());
+        ConditionalResponseCache.Entry<MlItem> first = null;
+        for (String id : itemIds) {
+            ConditionalResponseCache.Entry<MlItem> entry = itemCache.get(cacheKey(id, attributes));
+            if (entry == null) {
+                return null;
+            }
+            if (first == null) {
+                first = entry;
+            } else if (!Objects.equals(first.etag(), entry.etag())
+                    || !Objects.equals(first.lastModified(), entry.lastModified())) {
+                return null;
+            }
+            items.add(entry.value());
+        }
+        return items.isEmpty() ? null : items;
+    }
+
+    /**
+     * Caches each item answered with 200 under its id; ids answered with an error are dropped.
+     * Entries come back in request order, which also identifies errors that carry no body id.
+     */
+    private void store(List<String> itemIds, List<MlMultiGetEntry> entries, String attributes,
+                       String etag, String lastModified) {
+        for (int i = 0; i < entries.size() && i < itemIds.size(); i++) {
+            MlMultiGetEntry entry = entries.get(i);
+            String key = cacheKey(itemIds.get(i), attributes);
+            if (entry.getCode() != null && entry.getCode() == HttpStatus.OK.value() && entry.getBody() != null) {
+                itemCache.put(key, etag, lastModified, entry.getBody());
+            } else {
+                itemCache.put(key, null, null, null);
+            }
+        }
+    }
+
+    private static String cacheKey(String itemId, String attributes) {
+        return attributes != null ? itemId + "|" + attributes : itemId;
+    }
+}
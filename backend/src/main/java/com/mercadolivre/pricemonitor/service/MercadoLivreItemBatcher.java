@@ -0,0 +1,226 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.MlItem;
+import com.mercadolivre.pricemonitor.dto.MlMultiGetEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces single-item lookups into Mercado Livre multi-get requests.
+ *
+ * Callers ask for one item at a time; ids are collected until none has arrived for
+ * {@code windowMillis}, until {@code maxDelayMillis} passed since the first one (so a
+ * steady trickle cannot hold a batch forever) or until {@code maxPendingIds} accumulate, then sent as
+ * /items?ids=A,B,C requests and each entry of the response is routed back to its caller.
+ * A 404 for one id fails only that caller. During an update cycle this cuts ML requests ~20×.
+ *
+ * Batch composition is deterministic: the collected ids are sorted and split into
+ * consecutive chunks of {@code maxIds}. An update cycle asks for all its items in one burst,
+ * so as long as the watched items don't change, each cycle sends the same id lists and
+ * {@link MercadoLivreApiClient} can revalidate them with the validator cached for their
+ * items (304). Adding or removing an item only shifts the chunks after it, for one cycle.
+ *
+ * Each multi-get takes its token from {@link MercadoLivreTokenPool} when it is sent,
+ * so consecutive requests rotate over all linked accounts.
+ */
+@Component
+@Slf4j
+public class MercadoLivreItemBatcher {
+
+    private final MercadoLivreApiClient apiClient;
+    private final MercadoLivreTokenPool tokenPool;
+    private final long windowMillis;
+    private final long maxDelayMillis;
+    private final int maxIds;
+    private final int maxPendingIds;
+    private final Scheduler scheduler;
+
+    /**
+     * Pending batches keyed by tier (priceOnly): ids of the price-only and full tiers
+     * cannot share a request.
+     */
+    private final Map<Boolean, PendingBatch> pending = new HashMap<>();
+
+    private static final class PendingBatch {
+        final Map<String, List<Sinks.One<MlItem>>> sinks = new HashMap<>();
+        final long firstEnqueueNanos = System.nanoTime();
+        long lastEnqueueNanos;
+    }
+
+    @Autowired
+    public MercadoLivreItemBatcher(MercadoLivreApiClient apiClient,
+                                   MercadoLivreTokenPool tokenPool,
+                                   @Value("${mercadolivre.multiget.window-ms:25}") long windowMillis,
+                                   @Value("${mercadolivre.multiget.max-delay-ms:250}") long maxDelayMillis,
+                                   @Value("${mercadolivre.multiget.max-ids:20}") int maxIds,
+                                   @Value("${mercadolivre.multiget.max-pending-ids:5000}") int maxPendingIds) {
+        this(apiClient, tokenPool, windowMillis, maxDelayMillis, maxIds, maxPendingIds, Schedulers.parallel());
+    }
+
+    MercadoLivreItemBatcher(MercadoLivreApiClient apiClient, MercadoLivreTokenPool tokenPool, long windowMillis,
+                            long maxDelayMillis, int maxIds, int maxPendingIds, Scheduler scheduler) {
+        this.apiClient = apiClient;
+        this.tokenPool = tokenPool;
+        this.windowMillis = windowMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxIds = maxIds;
+        this.maxPendingIds = maxPendingIds;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Requests one item; it will be fetched together with other ids requested around the same time.
+     *
+     * @param priceOnly true to fetch only id/price/original_price (frequent tier).
+     */
+    public Mono<MlItem> getItem(String itemId, boolean priceOnly) {
+        return Mono.defer(() -> {
+            Sinks.One<MlItem> sink = Sinks.one();
+            enqueue(itemId, priceOnly, sink);
+            return sink.asMono();
+        });
+    }
+
+    private void enqueue(String itemId, Boolean priceOnly, Sinks.One<MlItem> sink) {
+        PendingBatch ready = null;
+        synchronized (pending) {
+            PendingBatch batch = pending.get(priceOnly);
+            if (batch == null) {
+                batch = new PendingBatch();
+                pending.put(priceOnly, batch);
+                scheduleFlush(priceOnly, batch, Math.min(windowMillis, maxDelayMillis));
+            }
+            batch.sinks.computeIfAbsent(itemId, k -> new ArrayList<>()).add(sink);
+            batch.lastEnqueueNanos = System.nanoTime();
+            if (batch.sinks.size() >= maxPendingIds) {
+                ready = pending.remove(priceOnly);
+            }
+        }
+        if (ready != null) {
+            send(priceOnly, ready);
+        }
+    }
+
+    private void scheduleFlush(Boolean priceOnly, PendingBatch batch, long delayMillis) {
+        scheduler.schedule(() -> flushIfIdle(priceOnly, batch), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Timer callback: sends the batch once no id has been added for a full window or the
+     * maximum delay since its first id has passed, otherwise waits for whichever comes first.
+     */
+    private void flushIfIdle(Boolean priceOnly, PendingBatch batch) {
+        synchronized (pending) {
+            if (pending.get(priceOnly) != batch) {
+                return; // already sent because it reached maxPendingIds
+            }
+            long now = System.nanoTime();
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(now - batch.lastEnqueueNanos);
+            long ageMillis = TimeUnit.NANOSECONDS.toMillis(now - batch.firstEnqueueNanos);
+            if (idleMillis < windowMillis && ageMillis < maxDelayMillis) {
+                scheduleFlush(priceOnly, batch, Math.min(windowMillis - idleMillis, maxDelayMillis - ageMillis));
+                return;
+            }
+            pending.remove(priceOnly);
+        }
+        send(priceOnly, batch);
+    }
+
+    /**
+     * Sends the collected ids as multi-gets of sorted, consecutive chunks of {@code maxIds}.
+     */
+    private void send(Boolean priceOnly, PendingBatch batch) {
+        List<String> ids = new ArrayList<>(batch.sinks.keySet());
+        Collections.sort(ids);
+        for (int i = 0; i < ids.size(); i += maxIds) {
+            Map<String, List<Sinks.One<MlItem>>> chunk = new LinkedHashMap<>();
+            ids.subList(i, Math.min(i + maxIds, ids.size())).forEach(id -> chunk.put(id, batch.sinks.get(id)));
+            sendChunk(priceOnly, chunk);
+        }
+    }
+
+    private void sendChunk(Boolean priceOnly, Map<String, List<Sinks.One<MlItem>>> waiting) {
+        MercadoLivreTokenPool.PooledToken token = tokenPool.acquire();
+        if (token == null) {
+            failAll(waiting, new IllegalStateException("Nenhum token do Mercado Livre disponível"));
+            return;
+        }
+        log.debug("[ML_API] Multi-get of {} items (priceOnly={})", waiting.size(), priceOnly);
+        List<String> ids = List.copyOf(waiting.keySet());
+        apiClient.getItems(ids, token.accessToken(), priceOnly ? MercadoLivreApiClient.PRICE_ATTRIBUTES : null)
+                .subscribe(entries -> dispatch(token, ids, waiting, entries),
+                        error -> {
+                            if (error instanceof WebClientResponseException responseError) {
+                                tokenPool.reportFailure(token, responseError.getStatusCode().value());
+                            }
+                            failAll(waiting, error);
+                        });
+    }
+
+    private static void failAll(Map<String, List<Sinks.One<MlItem>>> waiting, Throwable error) {
+        waiting.values().forEach(sinks -> sinks.forEach(sink -> sink.tryEmitError(error)));
+    }
+
+    /**
+     * Routes each entry to the callers of its id. ML answers in request order and error
+     * entries (403, 429, 500...) may carry no id in the body, so entries are matched by
+     * position when the response has one entry per id, by body id otherwise.
+     * A 429 entry parks the token; 401/403 on every entry means the token itself was rejected.
+     */
+    private void dispatch(MercadoLivreTokenPool.PooledToken token, List<String> ids,
+                          Map<String, List<Sinks.One<MlItem>>> waiting, List<MlMultiGetEntry> entries) {
+        Map<String, List<Sinks.One<MlItem>>> unanswered = new HashMap<>(waiting);
+        boolean positional = entries.size() == ids.size();
+        boolean rateLimited = false;
+        int rejected = 0;
+        int rejectedStatus = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            MlMultiGetEntry entry = entries.get(i);
+            MlItem body = entry.getBody();
+            String itemId = positional ? ids.get(i) : body != null ? body.getId() : null;
+            List<Sinks.One<MlItem>> sinks = itemId != null ? unanswered.remove(itemId) : null;
+            if (sinks == null) {
+                continue;
+            }
+            int code = entry.getCode() != null ? entry.getCode() : 500;
+            if (code == 200 && body != null) {
+                sinks.forEach(sink -> sink.tryEmitValue(body));
+                continue;
+            }
+            if (code == 429) {
+                rateLimited = true;
+            } else if (code == 401 || code == 403) {
+                rejected++;
+                rejectedStatus = code;
+            }
+            MercadoLivreItemException error = new MercadoLivreItemException(itemId, code,
+                    "Item " + itemId + " returned status " + code);
+            sinks.forEach(sink -> sink.tryEmitError(error));
+        }
+        if (rateLimited) {
+            tokenPool.reportFailure(token, 429);
+        } else if (rejected > 0 && rejected == entries.size()) {
+            tokenPool.reportFailure(token, rejectedStatus);
+        }
+        unanswered.forEach((itemId, sinks) -> {
+            MercadoLivreItemException error = new MercadoLivreItemException(itemId, 404,
+                    "Item " + itemId + " missing from multi-get response");
+            sinks.forEach(sink -> sink.tryEmitError(error));
+        });
+    }
+}
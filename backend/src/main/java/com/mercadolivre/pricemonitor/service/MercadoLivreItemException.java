@@ -0,0 +1,25 @@
+package com.mercadolivre.pricemonitor.service;
+
+/**
+ * Exception thrown when Mercado Livre reports a failure for a single item
+ * (e.g. a 404 entry inside a multi-get response).
+ */
+public class MercadoLivreItemException extends RuntimeException {
+
+    private final String itemId;
+    private final int status;
+
+    public MercadoLivreItemException(String itemId, int status, String message) {
+        super(message);
+        this.itemId = itemId;
+        this.status = status;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
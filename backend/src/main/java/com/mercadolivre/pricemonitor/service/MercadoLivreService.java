@@ -1,83 +1,43 @@
 package com.mercadolivre.pricemonitor.service;
 
+import com.mercadolivre.pricemonitor.dto.MlItem;
 import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import com.mercadolivre.pricemonitor.model.User;
 import com.mercadolivre.pricemonitor.repository.MercadoLivreTokenRepository;
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Serviço para integração com a API do Mercado Livre.
  * Usa OAuth2 para autenticação e consulta dados de produtos.
  * Tokens são persistidos no banco de dados.
+ *
+ * Os tokens de todas as contas vinculadas ficam no {@link MercadoLivreTokenPool}, que
+ * distribui as requisições do ciclo entre elas. As buscas só leem o pool e nunca
+ * renovam nem bloqueiam. A renovação roda em background (refreshTokenInBackground),
+ * com antecedência em relação à expiração e uma única renovação por token de cada vez.
+ * Toda busca de item passa por {@link #getItemByUrl}: pool de tokens, {@link CatalogResolver}
+ * para links de catálogo e multi-get via {@link MercadoLivreItemBatcher}.
  */
 @Service
+@Slf4j
 @SuppressWarnings("unchecked") // RestTemplate retorna Map raw type - comportamento esperado
 public class MercadoLivreService {
-        /**
-         * Salva ou atualiza o token no banco de dados, vinculado ao usuário.
-         */
-        public void saveTokenForUser(Map<String, Object> tokenData, com.mercadolivre.pricemonitor.model.User user) {
-            String accessToken = (String) tokenData.get("access_token");
-            String refreshToken = (String) tokenData.get("refresh_token");
-            String tokenType = (String) tokenData.get("token_type");
-            Integer expiresIn = (Integer) tokenData.get("expires_in");
-            Object userIdObj = tokenData.get("user_id");
-            Long userIdMl = userIdObj != null ? Long.valueOf(userIdObj.toString()) : null;
-
-            LocalDateTime expiresAt = expiresIn != null
-                ? LocalDateTime.now().plusSeconds(expiresIn)
-                : LocalDateTime.now().plusHours(6);
-
-            // Buscar token existente ou criar novo para este usuário
-            MercadoLivreToken token = tokenRepository.findByUser(user)
-                    .orElse(new MercadoLivreToken());
-
-            token.setAccessToken(accessToken);
-            token.setRefreshToken(refreshToken);
-            token.setTokenType(tokenType);
-            token.setExpiresAt(expiresAt);
-            token.setUserIdMl(userIdMl);
-            token.setUser(user);
-
-            tokenRepository.save(token);
-        }
-    /**
-     * Busca informações de um produto pelo usuário do sistema.
-     */
-    public Map<String, Object> getProductByUrlForUser(String url, com.mercadolivre.pricemonitor.model.User user) {
-        Optional<MercadoLivreToken> tokenOpt = tokenRepository.findByUser(user);
-        if (tokenOpt.isEmpty() || !tokenOpt.get().isValid()) {
-            throw new RuntimeException("Token Mercado Livre não disponível ou inválido para este usuário.");
-        }
-        MercadoLivreToken userToken = tokenOpt.get();
-        String itemId = extractItemId(url);
-        if (itemId == null) {
-            throw new RuntimeException("Não foi possível extrair o ID do produto da URL");
-        }
-        String apiUrlItem = apiUrl + "/items/" + itemId;
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(userToken.getAccessToken());
-        HttpEntity<?> request = new HttpEntity<>(headers);
-        try {
-            ResponseEntity<Map> response = restTemplate.exchange(apiUrlItem, HttpMethod.GET, request, Map.class);
-            if (response.getStatusCode() == HttpStatus.OK) {
-                return response.getBody();
-            }
-        } catch (Exception e) {
-            System.err.println("[ML_API] ❌ Erro ao buscar produto para usuário: " + e.getMessage());
-        }
-        return null;
-    }
 
     @Value("${mercadolivre.client.id}")
     private String clientId;
@@ -93,43 +53,66 @@ public class MercadoLivreService {
 
     private final RestTemplate restTemplate;
     private final MercadoLivreTokenRepository tokenRepository;
-
-    // Cache em memória para evitar queries constantes
-    private MercadoLivreToken cachedToken;
-
-    public MercadoLivreService(MercadoLivreTokenRepository tokenRepository) {
-        this.restTemplate = new RestTemplate();
+    private final MercadoLivreItemBatcher itemBatcher;
+    private final MercadoLivreTokenPool tokenPool;
+    private final CatalogResolver catalogResolver;
+    private final long refreshAheadMinutes;
+
+    // Ids dos tokens com renovação em andamento (uma por token)
+    private final Set<Long> refreshInFlight = ConcurrentHashMap.newKeySet();
+
+    public MercadoLivreService(MercadoLivreTokenRepository tokenRepository,
+                               MercadoLivreItemBatcher itemBatcher,
+                               MercadoLivreTokenPool tokenPool,
+                               CatalogResolver catalogResolver,
+                               @Value("${mercadolivre.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+                               @Value("${mercadolivre.http.response-timeout-ms:10000}") int readTimeoutMs,
+                               @Value("${mercadolivre.token.refresh-ahead-minutes:30}") long refreshAheadMinutes) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(requestFactory);
         this.tokenRepository = tokenRepository;
+        this.itemBatcher = itemBatcher;
+        this.tokenPool = tokenPool;
+        this.catalogResolver = catalogResolver;
+        this.refreshAheadMinutes = refreshAheadMinutes;
     }
 
     /**
-     * Carrega token do banco ao iniciar.
+     * Carrega os tokens do banco ao iniciar.
      */
     @PostConstruct
     public void init() {
-        loadTokenFromDatabase();
+        refreshTokenInBackground();
+        log.info("[ML_API] ✅ {} conta(s) Mercado Livre no pool de tokens", tokenPool.size());
     }
 
     /**
-     * Carrega o token mais recente do banco de dados.
+     * Renovador em background: recarrega os tokens de todas as contas vinculadas no pool
+     * e renova os que expiram em menos de {@code mercadolivre.token.refresh-ahead-minutes}
+     * ou que a API rejeitou. Se a renovação falhar, o token continua salvo e uma nova
+     * tentativa é feita na próxima execução.
      */
-    private void loadTokenFromDatabase() {
-        Optional<MercadoLivreToken> tokenOpt = tokenRepository.findLatestToken();
-        if (tokenOpt.isPresent()) {
-            cachedToken = tokenOpt.get();
-            if (cachedToken.isValid()) {
-                System.out.println("[ML_API] ✅ Token carregado do banco de dados!");
-            } else if (cachedToken.getRefreshToken() != null) {
-                System.out.println("[ML_API] ⚠️ Token expirado, tentando renovar...");
-                try {
-                    refreshAccessToken();
-                } catch (Exception e) {
-                    System.err.println("[ML_API] ❌ Falha ao renovar token: " + e.getMessage());
-                    cachedToken = null;
-                }
+    @Scheduled(fixedDelayString = "${mercadolivre.token.refresh-check-ms:60000}",
+            initialDelayString = "${mercadolivre.token.refresh-check-ms:60000}")
+    public void refreshTokenInBackground() {
+        try {
+            tokenPool.replaceAll(tokenRepository.findAll());
+        } catch (Exception e) {
+            log.error("[ML_API] ❌ Falha ao carregar tokens: {}", e.getMessage());
+            return;
+        }
+        for (MercadoLivreToken token : tokenPool.tokensNeedingRefresh(refreshAheadMinutes)) {
+            if (token.getRefreshToken() == null) {
+                continue;
+            }
+            try {
+                log.info("[ML_API] 🔄 Renovando token da conta {} em background...", token.getUserIdMl());
+                refreshAccessToken(token);
+            } catch (Exception e) {
+                log.error("[ML_API] ❌ Falha ao renovar token da conta {}: {}", token.getUserIdMl(), e.getMessage());
             }
-        } else {
-            System.out.println("[ML_API] ℹ️ Nenhum token encontrado no banco. Autorização necessária.");
         }
     }
 
@@ -184,11 +167,11 @@ public class MercadoLivreService {
                 // Salvar no banco de dados
                 saveTokenToDatabase(tokenData);
                 
-                System.out.println("[ML_API] ✅ Token obtido e salvo no banco!");
+                log.info("[ML_API] ✅ Token obtido e salvo no banco!");
                 return tokenData;
             }
         } catch (Exception e) {
-            System.err.println("[ML_API] ❌ Erro ao obter token: " + e.getMessage());
+            log.error("[ML_API] ❌ Erro ao obter token: {}", e.getMessage());
             throw new RuntimeException("Falha ao obter token do Mercado Livre: " + e.getMessage());
         }
 
@@ -220,16 +203,50 @@ public class MercadoLivreService {
         token.setExpiresAt(expiresAt);
         token.setUserIdMl(userId);
 
-        cachedToken = tokenRepository.save(token);
+        tokenPool.put(tokenRepository.save(token));
     }
 
     /**
-     * Renova o access token usando o refresh token.
+     * Salva ou atualiza o token no banco de dados, vinculado ao usuário.
      */
-    public void refreshAccessToken() {
-        if (cachedToken == null || cachedToken.getRefreshToken() == null) {
+    public void saveTokenForUser(Map<String, Object> tokenData, User user) {
+        String accessToken = (String) tokenData.get("access_token");
+        String refreshToken = (String) tokenData.get("refresh_token");
+        String tokenType = (String) tokenData.get("token_type");
+        Integer expiresIn = (Integer) tokenData.get("expires_in");
+        Object userIdObj = tokenData.get("user_id");
+        Long userIdMl = userIdObj != null ? Long.valueOf(userIdObj.toString()) : null;
+
+        LocalDateTime expiresAt = expiresIn != null
+            ? LocalDateTime.now().plusSeconds(expiresIn)
+            : LocalDateTime.now().plusHours(6);
+
+        // Buscar token existente ou criar novo para este usuário
+        MercadoLivreToken token = tokenRepository.findByUser(user)
+                .orElse(new MercadoLivreToken());
+
+        token.setAccessToken(accessToken);
+        token.setRefreshToken(refreshToken);
+        token.setTokenType(tokenType);
+        token.setExpiresAt(expiresAt);
+        token.setUserIdMl(userIdMl);
+        token.setUser(user);
+
+        tokenPool.put(tokenRepository.save(token));
+    }
+
+    /**
+     * Renova o access token de uma conta usando o refresh token.
+     * Single-flight por token: se já há uma renovação em andamento, retorna sem fazer nada.
+     * Em caso de falha o token salvo é mantido (pode ser uma falha temporária da API).
+     */
+    public void refreshAccessToken(MercadoLivreToken token) {
+        if (token == null || token.getRefreshToken() == null) {
             throw new RuntimeException("Refresh token não disponível. Faça login novamente.");
         }
+        if (!refreshInFlight.add(token.getId())) {
+            return;
+        }
 
         String tokenUrl = apiUrl + "/oauth/token";
 
@@ -240,7 +257,7 @@ public class MercadoLivreService {
         body.put("grant_type", "refresh_token");
         body.put("client_id", clientId);
         body.put("client_secret", clientSecret);
-        body.put("refresh_token", cachedToken.getRefreshToken());
+        body.put("refresh_token", token.getRefreshToken());
 
         HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
 
@@ -249,102 +266,52 @@ public class MercadoLivreService {
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> tokenData = response.getBody();
-                saveTokenToDatabase(tokenData);
-                System.out.println("[ML_API] ✅ Token renovado e salvo no banco!");
+                // Nova instância: a que está no pool continua intacta para quem já a leu
+                MercadoLivreToken renewed = tokenRepository.findById(token.getId()).orElseThrow();
+                renewed.setAccessToken((String) tokenData.get("access_token"));
+                if (tokenData.get("refresh_token") != null) {
+                    renewed.setRefreshToken((String) tokenData.get("refresh_token"));
+                }
+                Integer expiresIn = (Integer) tokenData.get("expires_in");
+                renewed.setExpiresAt(expiresIn != null
+                        ? LocalDateTime.now().plusSeconds(expiresIn)
+                        : LocalDateTime.now().plusHours(6));
+                tokenPool.put(tokenRepository.save(renewed));
+                log.info("[ML_API] ✅ Token renovado e salvo no banco!");
             }
         } catch (Exception e) {
-            System.err.println("[ML_API] ❌ Erro ao renovar token: " + e.getMessage());
-            // Invalidar o token em cache e no banco quando refresh falha
-            if (cachedToken != null && cachedToken.getId() != null) {
-                tokenRepository.deleteById(cachedToken.getId());
-                System.out.println("[ML_API] 🗑️ Token inválido removido do banco de dados.");
-            }
-            cachedToken = null;
             throw new RuntimeException("Falha ao renovar token: " + e.getMessage());
+        } finally {
+            refreshInFlight.remove(token.getId());
         }
     }
 
     /**
-     * Busca informações de um produto pelo ID.
+     * Busca um item pela URL, de forma não-bloqueante. Usada pelo ciclo de atualização.
+     * Chamadas próximas no tempo são agrupadas em multi-gets de até 20 itens,
+     * cada um feito com o próximo token do pool.
+     * Links de catálogo (/p/MLB...) são primeiro resolvidos para o item vencedor do buy box.
+     *
+     * @param priceOnly true para buscar só preço (tier frequente), false para o item completo.
      */
-    public Map<String, Object> getProduct(String itemId) {
-        ensureValidToken();
-
-        String url = apiUrl + "/items/" + itemId;
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(cachedToken.getAccessToken());
-
-        HttpEntity<?> request = new HttpEntity<>(headers);
-
-        try {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                return response.getBody();
-            }
-        } catch (Exception e) {
-            System.err.println("[ML_API] ❌ Erro ao buscar produto: " + e.getMessage());
+    public Mono<MlItem> getItemByUrl(String url, boolean priceOnly) {
+        String catalogId = ListingKeys.catalogId(url);
+        if (catalogId != null) {
+            return catalogResolver.resolve(catalogId)
+                    .flatMap(itemId -> itemBatcher.getItem(itemId, priceOnly));
         }
-
-        return null;
-    }
-
-    /**
-     * Busca informações de um produto pela URL.
-     * Extrai o ID da URL e consulta a API.
-     */
-    public Map<String, Object> getProductByUrl(String url) {
-        String itemId = extractItemId(url);
+        String itemId = ListingKeys.itemId(url);
         if (itemId == null) {
-            throw new RuntimeException("Não foi possível extrair o ID do produto da URL");
-        }
-        return getProduct(itemId);
-    }
-
-    /**
-     * Extrai o ID do produto da URL do Mercado Livre.
-     */
-    private String extractItemId(String url) {
-        // Padrão: /p/MLB12345678
-        java.util.regex.Pattern pattern1 = java.util.regex.Pattern.compile("/p/(ML[A-Z]\\d+)");
-        java.util.regex.Matcher matcher1 = pattern1.matcher(url);
-        if (matcher1.find()) {
-            return matcher1.group(1);
-        }
-
-        // Padrão: MLB-1234567890 ou MLB1234567890
-        java.util.regex.Pattern pattern2 = java.util.regex.Pattern.compile("(ML[A-Z])-?(\\d+)");
-        java.util.regex.Matcher matcher2 = pattern2.matcher(url);
-        if (matcher2.find()) {
-            return matcher2.group(1) + matcher2.group(2);
-        }
-
-        return null;
-    }
-
-    /**
-     * Garante que o token está válido, renovando se necessário.
-     */
-    private void ensureValidToken() {
-        if (cachedToken == null || cachedToken.getAccessToken() == null) {
-            throw new RuntimeException("Token não disponível. Faça login primeiro.");
-        }
-
-        // Renovar se vai expirar em breve
-        if (cachedToken.isExpiringSoon()) {
-            refreshAccessToken();
+            return Mono.error(new RuntimeException("Não foi possível extrair o ID do produto da URL"));
         }
+        return itemBatcher.getItem(itemId, priceOnly);
     }
 
     /**
-     * Verifica se há um token válido.
+     * Verifica se há ao menos um token válido e utilizável no pool.
      */
     public boolean hasValidToken() {
-        if (cachedToken == null) {
-            loadTokenFromDatabase();
-        }
-        return cachedToken != null && cachedToken.isValid();
+        return tokenPool.hasAvailableToken();
     }
 
     /**
@@ -0,0 +1,201 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of the OAuth tokens of every linked Mercado Livre account.
+ *
+ * ML rate-limits per token, so spreading the cycle's requests over all linked
+ * accounts multiplies the available quota. Tokens are handed out round-robin;
+ * each one counts its requests in a one-minute window and is skipped once it
+ * reaches {@code mercadolivre.token.max-requests-per-minute}. A token answered
+ * with 429 is parked for a cooldown, and one answered with 401/403 is dropped
+ * until the background refresher replaces it with a renewed token.
+ *
+ * The token list is an immutable snapshot swapped atomically, so readers never lock.
+ */
+@Component
+@Slf4j
+public class MercadoLivreTokenPool {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+
+    private final int maxRequestsPerMinute;
+    private final long rateLimitedCooldownMillis;
+    private final AtomicReference<List<PooledToken>> tokens = new AtomicReference<>(List.of());
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public MercadoLivreTokenPool(
+            @Value("${mercadolivre.token.max-requests-per-minute:1000}") int maxRequestsPerMinute,
+            @Value("${mercadolivre.token.rate-limited-cooldown-ms:60000}") long rateLimitedCooldownMillis,
+            MeterRegistry meterRegistry) {
+        this.maxRequestsPerMinute = maxRequestsPerMinute;
+        this.rateLimitedCooldownMillis = rateLimitedCooldownMillis;
+        Gauge.builder("mercadolivre.token.pool.size", tokens, list -> list.get().size())
+                .description("Linked Mercado Livre accounts in the token pool")
+                .register(meterRegistry);
+        Gauge.builder("mercadolivre.token.pool.available", this, pool -> pool.availableCount())
+                .description("Pooled tokens that are valid and not rate-limited or rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the pool content with the given tokens (e.g. after the background refresh).
+     * Request counters and cooldowns carry over for tokens whose access token did not change;
+     * a renewed access token starts clean.
+     */
+    public void replaceAll(Collection<MercadoLivreToken> current) {
+        Map<String, PooledToken> previous = new HashMap<>();
+        for (PooledToken pooled : tokens.get()) {
+            previous.put(pooled.accessToken(), pooled);
+        }
+        List<PooledToken> next = new ArrayList<>(current.size());
+        for (MercadoLivreToken token : current) {
+            if (token.getAccessToken() == null) {
+                continue;
+            }
+            PooledToken kept = previous.get(token.getAccessToken());
+            next.add(kept != null ? kept : new PooledToken(token));
+        }
+        tokens.set(List.copyOf(next));
+    }
+
+    /**
+     * Adds or replaces one token (a newly linked or renewed account).
+     */
+    public void put(MercadoLivreToken token) {
+        List<MercadoLivreToken> current = new ArrayList<>();
+        for (PooledToken pooled : tokens.get()) {
+            if (!pooled.token.getId().equals(token.getId())) {
+                current.add(pooled.token);
+            }
+        }
+        current.add(token);
+        replaceAll(current);
+    }
+
+    /**
+     * Picks the next usable token and counts one request against it.
+     *
+     * @return The token, or null when every token is expired, rejected or out of quota.
+     */
+    public PooledToken acquire() {
+        List<PooledToken> snapshot = tokens.get();
+        int size = snapshot.size();
+        if (size == 0) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            PooledToken candidate = snapshot.get((start + i) % size);
+            if (candidate.isUsable(now) && candidate.tryConsume(now, maxRequestsPerMinute)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reports an HTTP error answered to a request made with the given token.
+     */
+    public void reportFailure(PooledToken token, int status) {
+        if (status == HttpStatus.UNAUTHORIZED.value() || status == HttpStatus.FORBIDDEN.value()) {
+            if (!token.rejected) {
+                log.warn("[ML_API] Token da conta {} rejeitado ({}); fora do pool até ser renovado",
+                        token.token.getUserIdMl(), status);
+            }
+            token.rejected = true;
+        } else if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            token.cooldownUntil = System.currentTimeMillis() + rateLimitedCooldownMillis;
+            log.warn("[ML_API] Token da conta {} atingiu o limite da API; pausado por {}ms",
+                    token.token.getUserIdMl(), rateLimitedCooldownMillis);
+        }
+    }
+
+    /**
+     * True when at least one token is valid and not rejected or cooling down.
+     * Does not consume quota.
+     */
+    public boolean hasAvailableToken() {
+        return availableCount() > 0;
+    }
+
+    public int size() {
+        return tokens.get().size();
+    }
+
+    /**
+     * Tokens that are rejected or about to expire and should be renewed.
+     */
+    public List<MercadoLivreToken> tokensNeedingRefresh(long aheadMinutes) {
+        List<MercadoLivreToken> result = new ArrayList<>();
+        for (PooledToken pooled : tokens.get()) {
+            if (pooled.rejected || pooled.token.isExpiringWithin(aheadMinutes)) {
+                result.add(pooled.token);
+            }
+        }
+        return result;
+    }
+
+    private int availableCount() {
+        long now = System.currentTimeMillis();
+        int available = 0;
+        for (PooledToken pooled : tokens.get()) {
+            if (pooled.isUsable(now)) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * One token in the pool, with its request window and health state.
+     */
+    public static final class PooledToken {
+
+        private final MercadoLivreToken token;
+        private volatile boolean rejected;
+        private volatile long cooldownUntil;
+        private long windowStart;
+        private int windowCount;
+
+        PooledToken(MercadoLivreToken token) {
+            this.token = token;
+        }
+
+        public String accessToken() {
+            return token.getAccessToken();
+        }
+
+        boolean isUsable(long now) {
+            return !rejected && now >= cooldownUntil && token.isValid();
+        }
+
+        synchronized boolean tryConsume(long now, int limit) {
+            if (now - windowStart >= WINDOW_MILLIS) {
+                windowStart = now;
+                windowCount = 0;
+            }
+            if (windowCount >= limit) {
+                return false;
+            }
+            windowCount++;
+            return true;
+        }
+    }
+}
@@ -48,6 +48,7 @@ public class NotificationService {
     /**
      * Get all notifications for a user (recent, max 50)
      */
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationsByUserId(Long userId) {
         return notificationRepository.findRecentByUserId(userId);
     }
@@ -55,6 +56,7 @@ public class NotificationService {
     /**
      * Get unread notifications count
      */
+    @Transactional(readOnly = true)
     public long getUnreadCount(Long userId) {
         return notificationRepository.countByUserIdAndIsReadFalse(userId);
     }
@@ -0,0 +1,155 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.config.DatabaseVendor;
+import com.mercadolivre.pricemonitor.config.DatabaseWorkload;
+import com.mercadolivre.pricemonitor.config.Workload;
+import com.mercadolivre.pricemonitor.model.PriceChangeDaily;
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.PriceChangeDailyRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the price_change_daily rollup used by the analytics dashboard.
+ *
+ * Each real price change of a catalog item increments the product/day/hour row of every
+ * subscriber when it is recorded, so the dashboard keeps counting per user's product.
+ * The nightly reconcile recomputes the last {@code price.analytics.reconcile-days}
+ * days from price_history, fixing anything the write path missed (failed transactions,
+ * history cleanup). An empty rollup is backfilled from the whole history at startup.
+ */
+@Service
+@Slf4j
+public class PriceChangeRollupService {
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO price_change_daily (product_id, change_date, change_hour, user_id, change_count) "
+                    + "VALUES (?, ?, ?, ?, 1) ";
+    private static final String ON_CONFLICT_INCREMENT =
+            "ON CONFLICT (product_id, change_date, change_hour) "
+                    + "DO UPDATE SET change_count = price_change_daily.change_count + 1";
+    private static final String ON_DUPLICATE_KEY_INCREMENT =
+            "ON DUPLICATE KEY UPDATE change_count = change_count + 1";
+
+    private final PriceChangeDailyRepository rollupRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseVendor databaseVendor;
+    private final int reconcileDays;
+
+    public PriceChangeRollupService(PriceChangeDailyRepository rollupRepository,
+                                    PriceHistoryRepository priceHistoryRepository,
+                                    ProductRepository productRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    DatabaseVendor databaseVendor,
+                                    @Value("${price.analytics.reconcile-days:2}") int reconcileDays) {
+        this.rollupRepository = rollupRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseVendor = databaseVendor;
+        this.reconcileDays = reconcileDays;
+    }
+
+    /**
+     * Counts one price change of the product at the given time.
+     * Runs in the caller's transaction (the catalog item update).
+     *
+     * On PostgreSQL and MySQL this is one upsert on the (product, day, hour) key, so two
+     * writers creating the same row cannot hit a unique-key violation and roll back their
+     * chunk. Other databases (H2 in tests) increment first and insert when no row was updated.
+     */
+    public void recordChange(Product product, LocalDateTime at) {
+        LocalDate date = at.toLocalDate();
+        int hour = at.getHour();
+        if (databaseVendor.isPostgres() || databaseVendor.isMySql()) {
+            jdbcTemplate.update(INSERT_CHANGE + (databaseVendor.isPostgres() ? ON_CONFLICT_INCREMENT : ON_DUPLICATE_KEY_INCREMENT),
+                    product.getId(), Date.valueOf(date), hour, product.getUserId());
+            return;
+        }
+        if (rollupRepository.increment(product.getId(), date, hour) == 0) {
+            rollupRepository.save(new PriceChangeDaily(product.getId(), date, hour, product.getUserId(), 1L));
+        }
+    }
+
+    @Scheduled(cron = "${price.analytics.reconcile-cron:0 30 3 * * *}")
+    @DatabaseWorkload(Workload.MAINTENANCE)
+    @Transactional
+    public void reconcileRecent() {
+        reconcile(LocalDate.now().minusDays(reconcileDays));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @DatabaseWorkload(Workload.MAINTENANCE)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && priceHistoryRepository.count() > 0) {
+            log.info("📊 price_change_daily vazia; recalculando a partir de todo o histórico");
+            reconcile(LocalDate.EPOCH);
+        }
+    }
+
+    /**
+     * Replaces the rollup rows from {@code from} on with counts recomputed from price_history,
+     * each catalog item's counts copied to its subscribers. Hours that ended before a
+     * subscription was created are skipped, as the write path never counted them for it.
+     */
+    void reconcile(LocalDate from) {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = priceHistoryRepository.countChangesByCatalogItemDateAndHour(from.atStartOfDay());
+        Map<Long, List<Subscriber>> subscribersByItem = new HashMap<>();
+        for (Object[] row : productRepository.findProductUserRows()) {
+            subscribersByItem.computeIfAbsent(((Number) row[2]).longValue(), id -> new ArrayList<>())
+                    .add(new Subscriber(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), (LocalDateTime) row[3]));
+        }
+
+        List<PriceChangeDaily> rollup = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long itemId = ((Number) row[0]).longValue();
+            LocalDate date = toLocalDate(row[1]);
+            int hour = ((Number) row[2]).intValue();
+            LocalDateTime hourEnd = date.atTime(hour, 0).plusHours(1);
+            for (Subscriber subscriber : subscribersByItem.getOrDefault(itemId, List.of())) {
+                if (subscriber.createdAt() != null && !hourEnd.isAfter(subscriber.createdAt())) {
+                    continue;
+                }
+                rollup.add(new PriceChangeDaily(subscriber.productId(), date, hour, subscriber.userId(),
+                        ((Number) row[3]).longValue()));
+            }
+        }
+        int removed = rollupRepository.deleteFrom(from);
+        rollupRepository.saveAll(rollup);
+        log.info("📊 price_change_daily recalculada desde {}: {} linhas (antes {}) em {}ms",
+                from, rollup.size(), removed, System.currentTimeMillis() - start);
+    }
+
+    private record Subscriber(long productId, long userId, LocalDateTime createdAt) {
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        return LocalDate.parse(value.toString());
+    }
+}
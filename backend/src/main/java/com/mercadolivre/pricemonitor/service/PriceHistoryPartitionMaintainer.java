@@ -0,0 +1,121 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.config.DatabaseVendor;
+import com.mercadolivre.pricemonitor.config.DatabaseWorkload;
+import com.mercadolivre.pricemonitor.config.Workload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of price_history (PostgreSQL, migration V3).
+ *
+ * Creates the partitions of the next {@code price.history.partition.months-ahead}
+ * months, so inserts never hit a missing range, and applies retention by detaching
+ * (or dropping) whole partitions older than {@code price.history.retention-months}.
+ * Runs at startup and daily; does nothing when price_history is not partitioned
+ * (MySQL, H2).
+ */
+@Component
+@Slf4j
+@DatabaseWorkload(Workload.MAINTENANCE)
+public class PriceHistoryPartitionMaintainer {
+
+    private static final String PARTITION_PREFIX = "price_history_";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseVendor databaseVendor;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean dropExpired;
+
+    public PriceHistoryPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                           DatabaseVendor databaseVendor,
+                                           @Value("${price.history.partition.months-ahead:3}") int monthsAhead,
+                                           @Value("${price.history.retention-months:0}") int retentionMonths,
+                                           @Value("${price.history.retention-mode:detach}") String retentionMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseVendor = databaseVendor;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.dropExpired = "drop".equalsIgnoreCase(retentionMode);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${price.history.partition.cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                return;
+            }
+            createAhead(YearMonth.now());
+            if (retentionMonths > 0) {
+                applyRetention(YearMonth.now().minusMonths(retentionMonths));
+            }
+        } catch (Exception e) {
+            log.error("❌ Falha na manutenção das partições de price_history: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPartitioned() {
+        if (!databaseVendor.isPostgres()) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                        + "WHERE c.relname = 'price_history')", Boolean.class));
+    }
+
+    private void createAhead(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = current.plusMonths(i).atDay(1);
+            jdbcTemplate.queryForObject("SELECT price_history_ensure_partition(?)", String.class, month);
+        }
+    }
+
+    /**
+     * Detaches (and optionally drops) the partitions of months before {@code oldestKept}.
+     */
+    private void applyRetention(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = 'price_history'", String.class);
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(partition);
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE price_history DETACH PARTITION " + partition);
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("🗑️ Partição {} removida (retenção de {} meses)", partition, retentionMonths);
+            } else {
+                log.info("📦 Partição {} desanexada (retenção de {} meses); a tabela foi mantida", partition, retentionMonths);
+            }
+        }
+    }
+
+    static YearMonth partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.repository.CatalogItemRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * In-memory snapshot of the current price of every catalog item.
+ *
+ * Backed by a primitive open-addressing table (catalog item id → price in cents),
+ * so the update cycle can tell that nothing changed without loading entities,
+ * boxing Doubles or allocating per item. The database is only touched for
+ * real changes and for the periodic heartbeat write.
+ *
+ * Rebuilt from the catalog_items table on startup. Writers publish through
+ * {@link #recordAfterCommit}, so a rolled-back update never reaches the snapshot.
+ */
+@Component
+@Slf4j
+public class PriceSnapshot {
+
+    /** Sentinel for "no price" (null in the entity). */
+    static final long NO_PRICE = Long.MIN_VALUE;
+
+    /** Catalog item ids are generated by the database and always positive, so 0 marks a free slot. */
+    private static final long FREE = 0L;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final CatalogItemRepository catalogItemRepository;
+    private final long heartbeatMillis;
+
+    private long[] keys;
+    private long[] prices;
+    private long[] originalPrices;
+    private long[] writtenAt;
+    private int mask;
+    private int size;
+
+    public PriceSnapshot(CatalogItemRepository catalogItemRepository,
+                         @Value("${price.snapshot.heartbeat-hours:12}") long heartbeatHours) {
+        this.catalogItemRepository = catalogItemRepository;
+        this.heartbeatMillis = heartbeatHours * 60 * 60 * 1000;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Carrega o snapshot a partir do banco ao iniciar.
+     */
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the snapshot from the current state of the catalog_items table.
+     */
+    public synchronized void rebuild() {
+        List<Object[]> rows = catalogItemRepository.findPriceSnapshotRows();
+        allocate(capacityFor(rows.size()));
+        for (Object[] row : rows) {
+            long id = ((Number) row[0]).longValue();
+            LocalDateTime lastCheckedAt = (LocalDateTime) row[3];
+            long written = lastCheckedAt != null
+                    ? lastCheckedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : 0L;
+            put(id, toCents((Double) row[1]), toCents((Double) row[2]), written);
+        }
+        log.info("📸 Price snapshot rebuilt with {} catalog items", size);
+    }
+
+    /**
+     * Returns true when the scraped prices match the snapshot and the last database
+     * write for this item is recent enough that no heartbeat is due.
+     */
+    public synchronized boolean isUnchanged(long itemId, Double price, Double originalPrice, long nowMillis) {
+        int slot = find(itemId);
+        if (slot < 0) {
+            return false;
+        }
+        return prices[slot] == toCents(price)
+                && originalPrices[slot] == toCents(originalPrice)
+                && nowMillis - writtenAt[slot] < heartbeatMillis;
+    }
+
+    /**
+     * Records the prices that were just persisted for a catalog item.
+     */
+    public synchronized void record(long itemId, Double price, Double originalPrice, long nowMillis) {
+        put(itemId, toCents(price), toCents(originalPrice), nowMillis);
+    }
+
+    /**
+     * Records the prices once the current transaction commits, or right away when there
+     * is none. After a rollback the snapshot keeps the previous prices and the next
+     * cycle writes the change again instead of skipping it as unchanged.
+     */
+    public void recordAfterCommit(long itemId, Double price, Double originalPrice) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(itemId, price, originalPrice, System.currentTimeMillis());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(itemId, price, originalPrice, System.currentTimeMillis());
+            }
+        });
+    }
+
+    /**
+     * Removes a catalog item from the snapshot.
+     */
+    public synchronized void remove(long itemId) {
+        int slot = find(itemId);
+        if (slot < 0) {
+            return;
+        }
+        // Backward-shift deletion keeps linear probe chains intact without tombstones
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slotFor(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                prices[hole] = prices[next];
+                originalPrices[hole] = originalPrices[next];
+                writtenAt[hole] = writtenAt[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE;
+        size--;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    static long toCents(Double value) {
+        return value == null ? NO_PRICE : Math.round(value * 100);
+    }
+
+    private void put(long itemId, long price, long originalPrice, long written) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int slot = slotFor(itemId);
+        while (keys[slot] != FREE && keys[slot] != itemId) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == FREE) {
+            keys[slot] = itemId;
+            size++;
+        }
+        prices[slot] = price;
+        originalPrices[slot] = originalPrice;
+        writtenAt[slot] = written;
+    }
+
+    private int find(long itemId) {
+        int slot = slotFor(itemId);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == itemId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slotFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldPrices = prices;
+        long[] oldOriginals = originalPrices;
+        long[] oldWritten = writtenAt;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldPrices[i], oldOriginals[i], oldWritten[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        prices = new long[capacity];
+        originalPrices = new long[capacity];
+        writtenAt = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
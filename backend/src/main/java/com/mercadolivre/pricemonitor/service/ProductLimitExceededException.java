@@ -6,13 +6,19 @@ package com.mercadolivre.pricemonitor.service;
 public class ProductLimitExceededException extends RuntimeException {
     
     private final int limit;
+    private final long currentCount;
     
-    public ProductLimitExceededException(String message, int limit) {
+    public ProductLimitExceededException(String message, int limit, long currentCount) {
         super(message);
         this.limit = limit;
+        this.currentCount = currentCount;
     }
     
     public int getLimit() {
         return limit;
     }
+
+    public long getCurrentCount() {
+        return currentCount;
+    }
 }
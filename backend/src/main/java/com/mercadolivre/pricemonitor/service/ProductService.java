@@ -1,10 +1,15 @@
 package com.mercadolivre.pricemonitor.service;
 
+import com.mercadolivre.pricemonitor.config.DatabaseWorkload;
+import com.mercadolivre.pricemonitor.config.Workload;
 import com.mercadolivre.pricemonitor.dto.AnalyticsResponse;
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.CatalogItem;
 import com.mercadolivre.pricemonitor.model.PriceHistory;
 import com.mercadolivre.pricemonitor.model.Product;
 import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.CatalogItemRepository;
+import com.mercadolivre.pricemonitor.repository.PriceChangeDailyRepository;
 import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
 import com.mercadolivre.pricemonitor.repository.ProductRepository;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
@@ -13,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
@@ -20,7 +26,9 @@ import java.util.stream.Collectors;
 
 /**
  * Service containing the core business logic for product price monitoring.
- * This service now uses asynchronous methods for scraping and handles individual product logic.
+ * Scraped state and price history belong to catalog items (one per listing); products are
+ * the users' subscriptions to them, so each listing is updated once and the resulting
+ * notifications fan out to its subscribers.
  */
 @Service
 @Slf4j
@@ -28,6 +36,7 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final CatalogItemRepository catalogItemRepository;
     private final PriceHistoryRepository priceHistoryRepository;
     private final UserRepository userRepository;
     private final ScraperService scraperService;
@@ -35,50 +44,41 @@ public class ProductService {
     private final NotificationService notificationService;
     private final TelegramService telegramService;
     private final AsyncScrapingService asyncScrapingService; // For background scraping
+    private final PriceSnapshot priceSnapshot;
+    private final LastCheckedWriteBehind lastCheckedWriteBehind;
+    private final PriceChangeRollupService priceChangeRollupService;
+    private final PriceChangeDailyRepository priceChangeDailyRepository;
+    private final ProductUpsert productUpsert;
 
+    @Transactional(readOnly = true)
     public List<Product> getProductsByUserId(Long userId) {
         log.debug("Fetching products for userId: {}", userId);
         return productRepository.findByUserId(userId);
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    /**
+     * Catalog items with at least one subscriber, i.e. the listings the update cycle scrapes.
+     */
+    public List<CatalogItem> getWatchedCatalogItems() {
+        return catalogItemRepository.findWatched();
     }
 
-    public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+    public Optional<CatalogItem> getCatalogItemById(Long id) {
+        return catalogItemRepository.findById(id);
     }
 
-    /**
-     * Check if a product with the given URL already exists for a user.
-     * Normalizes URL before checking to handle variations.
-     */
-    public boolean existsByUrlAndUserId(String url, Long userId) {
-        String normalizedUrl = normalizeUrl(url);
-        // Check both exact match and normalized match
-        return productRepository.existsByUrlAndUserId(url, userId) ||
-               productRepository.existsByUrlAndUserId(normalizedUrl, userId);
+    public long countProducts() {
+        return productRepository.count();
     }
 
-    /**
-     * Normalize URL to avoid duplicates with different parameters/fragments.
-     */
-    private String normalizeUrl(String url) {
-        if (url == null) return null;
-        // Remove fragments
-        if (url.contains("#")) {
-            url = url.split("#")[0];
-        }
-        // Remove query parameters
-        if (url.contains("?")) {
-            url = url.split("\\?")[0];
-        }
-        return url.trim();
+    public Optional<Product> getProductById(Long id) {
+        return productRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<PriceHistory> getPriceHistory(Long productId) {
         return productRepository.findById(productId)
-                .map(priceHistoryRepository::findTop30ByProductOrderByRecordedAtDesc)
+                .map(product -> priceHistoryRepository.findTop30ByCatalogItemOrderByRecordedAtDesc(product.getCatalogItem()))
                 .orElse(List.of());
     }
 
@@ -87,29 +87,30 @@ public class ProductService {
      * Processes all history records and removes duplicates in Java.
      * Returns the number of deleted records.
      */
+    @DatabaseWorkload(Workload.MAINTENANCE)
     @Transactional
     public int cleanupDuplicateHistory() {
-        List<PriceHistory> allHistory = priceHistoryRepository.findAllOrderByProductAndDate();
+        List<PriceHistory> allHistory = priceHistoryRepository.findAllOrderByCatalogItemAndDate();
         
         if (allHistory.isEmpty()) {
             return 0;
         }
         
         List<Long> idsToDelete = new ArrayList<>();
-        Long currentProductId = null;
+        Long currentItemId = null;
         Double lastPrice = null;
         
         for (PriceHistory ph : allHistory) {
-            Long productId = ph.getProduct().getId();
+            Long itemId = ph.getCatalogItem().getId();
             
-            // Novo produto - resetar lastPrice
-            if (!productId.equals(currentProductId)) {
-                currentProductId = productId;
+            // Novo anúncio - resetar lastPrice
+            if (!itemId.equals(currentItemId)) {
+                currentItemId = itemId;
                 lastPrice = ph.getPrice();
-                continue; // Primeiro registro do produto, manter
+                continue; // Primeiro registro do anúncio, manter
             }
             
-            // Mesmo produto - verificar se preço é igual ao anterior
+            // Mesmo anúncio - verificar se preço é igual ao anterior
             if (lastPrice != null && ph.getPrice() != null 
                 && Math.abs(lastPrice - ph.getPrice()) < 0.01) {
                 // Preço igual ao anterior - marcar para deletar
@@ -138,9 +139,13 @@ public class ProductService {
         return totalDeleted;
     }
 
+    /**
+     * Removes the user's subscription. The catalog item and its price history are shared
+     * and stay; an item nobody monitors is no longer scraped.
+     */
     @Transactional
     public void removeProduct(Long id) {
-        priceHistoryRepository.deleteByProductId(id);
+        priceChangeDailyRepository.deleteByProductId(id);
         productRepository.deleteById(id);
         log.info("Removed product with ID: {}", id);
     }
@@ -149,56 +154,68 @@ public class ProductService {
     public static final int UNVERIFIED_USER_PRODUCT_LIMIT = 4;
 
     /**
-     * Adds a new product to monitor. Scrapes the initial price immediately using a blocking call.
-     * This is acceptable for a single, user-initiated action.
-     * 
-     * Users with unverified email are limited to 4 products.
+     * Adds a new product to monitor.
+     *
+     * Users with unverified email are limited to UNVERIFIED_USER_PRODUCT_LIMIT products.
      * After email verification, users can add unlimited products.
-     * 
-     * OPTIMIZED: Product is saved immediately with PENDING status,
-     * scraping happens in background for instant user feedback.
+     *
+     * The product subscribes the user to the listing's catalog item (see ProductUpsert).
+     * A listing nobody monitored yet gets a PENDING catalog item, scraped in background for
+     * instant user feedback; one already monitored by others is returned with its current
+     * data and no scrape. An item whose subscribers all left is no longer updated, so on
+     * re-subscribe its price is expired and it is scraped again like a new listing.
+     * The user comes from the second-level cache.
+     *
+     * @throws DuplicateProductException if the user already monitors this listing
+     * @throws ProductLimitExceededException if an unverified user is at the limit
      */
     @Transactional
     public Product addProduct(String url, Long userId) {
-        // Verificar limite de produtos para usuários não verificados
         User user = userRepository.findById(userId).orElse(null);
-        if (user != null && !Boolean.TRUE.equals(user.getEmailVerified())) {
-            long productCount = productRepository.countByUserId(userId);
-            if (productCount >= UNVERIFIED_USER_PRODUCT_LIMIT) {
-                log.warn("⚠️ Usuário {} atingiu limite de {} produtos (email não verificado)", userId, UNVERIFIED_USER_PRODUCT_LIMIT);
-                throw new ProductLimitExceededException(
-                    "Verifique seu email para monitorar mais de " + UNVERIFIED_USER_PRODUCT_LIMIT + " produtos",
-                    UNVERIFIED_USER_PRODUCT_LIMIT
-                );
-            }
-        }
-
-        if (productRepository.existsByUrlAndUserId(url, userId)) {
-            log.warn("⚠️ Product with URL already exists for userId {}: {}", userId, url);
-            return productRepository.findByUrlAndUserId(url, userId).orElse(null);
-        }
-
-        // Extrair nome temporário da URL para feedback rápido
-        String tempName = extractProductNameFromUrl(url);
+        int limit = user != null && !Boolean.TRUE.equals(user.getEmailVerified()) ? UNVERIFIED_USER_PRODUCT_LIMIT : 0;
 
-        // Criar produto imediatamente com status PENDING
+        // Anúncio novo: item PENDING com nome temporário extraído da URL para feedback rápido
+        CatalogItem item = productUpsert.catalogItemFor(ListingKeys.of(url), url, extractProductNameFromUrl(url));
         Product product = new Product();
-        product.setName(tempName);
         product.setUrl(url);
-        product.setImageUrl(null); // Will be filled by scraper
-        product.setCurrentPrice(null); // Will be filled by scraper
-        product.setLastPrice(null);
-        product.setLastCheckedAt(LocalDateTime.now());
+        product.setCatalogItem(item);
         product.setUserId(userId);
-        product.setStatus("PENDING");
-
-        Product saved = productRepository.save(product);
-        log.info("⏳ Product added with PENDING status for userId {}: {}", userId, url);
+        boolean orphaned = "ACTIVE".equals(item.getStatus()) && !productRepository.existsByCatalogItemId(item.getId());
+
+        if (productUpsert.insertIfAbsent(product, limit) == null) {
+            // Não inseriu: ou o anúncio já existe para o usuário, ou o limite foi atingido
+            Optional<Product> existing = productRepository.findFirstByCatalogItemIdAndUserId(item.getId(), userId);
+            if (existing.isPresent()) {
+                log.warn("⚠️ Product with URL already exists for userId {}: {}", userId, url);
+                throw new DuplicateProductException(existing.get());
+            }
+            log.warn("⚠️ Usuário {} atingiu limite de {} produtos (email não verificado)", userId, UNVERIFIED_USER_PRODUCT_LIMIT);
+            throw new ProductLimitExceededException(
+                "Verifique seu email para monitorar mais de " + UNVERIFIED_USER_PRODUCT_LIMIT + " produtos",
+                UNVERIFIED_USER_PRODUCT_LIMIT,
+                productRepository.countByUserId(userId)
+            );
+        }
+        if (orphaned) {
+            // Ninguém acompanhava o anúncio: preço e dados estão velhos, recarregar como anúncio novo.
+            // Flush now so the background scrape's update waits for this transaction instead of being overwritten.
+            log.info("♻️ Catalog item {} had no subscribers, expiring its price ({})", item.getId(), url);
+            item.setStatus("PENDING");
+            item.setCurrentPrice(null);
+            item.setLastPrice(null);
+            item.setOriginalPrice(null);
+            item.setDiscountPercent(null);
+            catalogItemRepository.saveAndFlush(item);
+        } else if ("ACTIVE".equals(item.getStatus())) {
+            log.info("✅ Product added for userId {} (anúncio já monitorado, item {}): {}", userId, item.getId(), url);
+            return product;
+        }
+        log.info("⏳ Product added with {} status for userId {}: {}", item.getStatus(), userId, url);
 
         // Disparar scraping em background via serviço separado (garante que @Async funciona!)
-        asyncScrapingService.scrapeProductInBackground(saved.getId(), url);
+        asyncScrapingService.scrapeCatalogItemInBackground(item.getId(), item.getUrl());
 
-        return saved;
+        return product;
     }
 
     /**
@@ -224,29 +241,56 @@ public class ProductService {
     }
 
     /**
-     * Triggers an async update for a single product.
-     * Used for force-update feature.
+     * Triggers the first scrape of a product's catalog item in background.
+     * Force updates of items that already have a price go through
+     * AsyncProductUpdateService.forceUpdateAsync instead.
      */
     public void updateSingleProductAsync(Product product) {
         log.info("🔄 Triggering async update for product: {} ({})", product.getName(), product.getId());
-        asyncScrapingService.scrapeProductInBackground(product.getId(), product.getUrl());
+        CatalogItem item = product.getCatalogItem();
+        asyncScrapingService.scrapeCatalogItemInBackground(item.getId(), item.getUrl());
+    }
+
+    /**
+     * A catalog item together with the scrape result to apply to it.
+     */
+    public record ScrapedItem(CatalogItem item, ScrapeResponse scrapeData) {
     }
 
     /**
-     * Updates a single product's data based on a fresh scrape.
+     * Applies a chunk of scrape results in a single transaction, so item updates,
+     * history rows and notifications are flushed together as JDBC batches.
+     * If any update fails the whole chunk rolls back and the caller may retry per item.
+     *
+     * @return The number of price change notifications created.
+     */
+    @Transactional
+    public int updateCatalogItems(List<ScrapedItem> updates) {
+        int notified = 0;
+        for (ScrapedItem update : updates) {
+            notified += updateCatalogItem(update.item(), update.scrapeData());
+        }
+        return notified;
+    }
+
+    /**
+     * Updates a catalog item's data based on a fresh scrape.
      * This method is transactional and handles all database and notification logic.
      * Saves to price history when:
      * 1. The price actually changes, OR
      * 2. At least once per day (for statistics purposes)
+     * A price change is counted and notified for every subscriber of the item.
+     *
+     * @return The number of price change notifications created.
      */
     @Transactional
-    public void updateSingleProduct(Product product, ScrapeResponse scrapeData) {
-        if (scrapeData == null || !scrapeData.isValid()) {
-            log.warn("Skipping update for product '{}' - scraper returned invalid data.", product.getName());
-            return;
+    public int updateCatalogItem(CatalogItem item, ScrapeResponse scrapeData) {
+        if (scrapeData == null || !scrapeData.hasPrice()) {
+            log.warn("Skipping update for product '{}' - scraper returned invalid data.", item.getName());
+            return 0;
         }
 
-        Double oldPrice = product.getCurrentPrice();
+        Double oldPrice = item.getCurrentPrice();
         Double newPrice = scrapeData.getPrice();
         
         // Verificar se o preço realmente mudou (com tolerância para evitar falsos positivos)
@@ -258,75 +302,100 @@ public class ProductService {
             priceChanged = Math.abs(oldPrice - newPrice) >= 0.01;
         }
 
-        // Só atualiza lastPrice quando o preço realmente muda (para manter a variação visível)
-        if (priceChanged) {
-            product.setLastPrice(oldPrice);
-        }
-        product.setCurrentPrice(newPrice);
-        product.setOriginalPrice(scrapeData.getOriginalPrice());
-        product.setDiscountPercent(scrapeData.getDiscountPercent());
-        product.setLastCheckedAt(LocalDateTime.now());
-        product.setName(scrapeData.getTitle());
-        if (scrapeData.getImageUrl() != null) {
-            product.setImageUrl(scrapeData.getImageUrl());
+        // Histórico: sempre que o preço muda, e no mínimo a cada 12h para as estatísticas
+        LocalDateTime now = LocalDateTime.now();
+        boolean shouldSaveHistory = priceChanged
+                || item.getLastHistoryAt() == null
+                || item.getLastHistoryAt().isBefore(now.minusHours(12));
+        if (shouldSaveHistory && !priceChanged) {
+            log.debug("📊 Salvando histórico periódico para '{}' (sem mudança, mas 12h+ desde último registro)", item.getName());
         }
 
-        productRepository.save(product);
+        // Respostas só de preço (tier frequente) não trazem título nem imagem
+        boolean contentChanged = priceChanged
+                || !Objects.equals(item.getOriginalPrice(), scrapeData.getOriginalPrice())
+                || !Objects.equals(item.getDiscountPercent(), scrapeData.getDiscountPercent())
+                || (scrapeData.hasMetadata() && (!Objects.equals(item.getName(), scrapeData.getTitle())
+                        || (scrapeData.getImageUrl() != null && !scrapeData.getImageUrl().equals(item.getImageUrl()))));
 
-        // Verificar se deve salvar no histórico
-        boolean shouldSaveHistory = priceChanged;
-        
-        // Se o preço não mudou, verificar se já tem registro hoje
-        if (!priceChanged) {
-            List<PriceHistory> recentHistory = priceHistoryRepository.findByProductIdSince(
-                product.getId(), 
-                LocalDateTime.now().minusHours(12) // Verifica últimas 12 horas
-            );
-            // Se não tem registro nas últimas 12h, salva para ter dados de estatísticas
-            if (recentHistory.isEmpty()) {
-                shouldSaveHistory = true;
-                log.debug("📊 Salvando histórico periódico para '{}' (sem mudança, mas 12h+ desde último registro)", product.getName());
+        if (contentChanged || shouldSaveHistory) {
+            // Só atualiza lastPrice quando o preço realmente muda (para manter a variação visível)
+            if (priceChanged) {
+                item.setLastPrice(oldPrice);
+                item.setCurrentPrice(newPrice);
+            }
+            item.setOriginalPrice(scrapeData.getOriginalPrice());
+            item.setDiscountPercent(scrapeData.getDiscountPercent());
+            item.setLastCheckedAt(now);
+            if (scrapeData.hasMetadata()) {
+                item.setName(scrapeData.getTitle());
+                if (scrapeData.getImageUrl() != null) {
+                    item.setImageUrl(scrapeData.getImageUrl());
+                }
+                item.setMetadataRefreshedAt(now);
+            }
+            if (shouldSaveHistory) {
+                item.setLastHistoryAt(now);
             }
+            catalogItemRepository.save(item);
+        } else {
+            // Nada mudou: só o last_checked_at, gravado em lote pelo write-behind
+            lastCheckedWriteBehind.markChecked(item.getId(), scrapeData.hasMetadata());
         }
+        priceSnapshot.recordAfterCommit(item.getId(), newPrice, scrapeData.getOriginalPrice());
 
+        // Primeiro preço não conta como mudança (igual às análises)
+        boolean isChange = priceChanged && oldPrice != null;
         if (shouldSaveHistory) {
-            PriceHistory history = new PriceHistory(product, newPrice);
+            PriceHistory history = new PriceHistory(item, newPrice, oldPrice, isChange);
             priceHistoryRepository.save(history);
             if (priceChanged) {
-                log.info("📊 Histórico salvo: '{}' - R$ {} → R$ {}", product.getName(), oldPrice, newPrice);
+                log.info("📊 Histórico salvo: '{}' - R$ {} → R$ {}", item.getName(), oldPrice, newPrice);
             }
         }
 
         // Log com informação de desconto se houver
         String discountInfo = "";
-        if (product.getDiscountPercent() != null && product.getDiscountPercent() > 0) {
-            discountInfo = String.format(" (🏷️ %d%% OFF)", product.getDiscountPercent());
+        if (item.getDiscountPercent() != null && item.getDiscountPercent() > 0) {
+            discountInfo = String.format(" (🏷️ %d%% OFF)", item.getDiscountPercent());
         }
         log.info("✅ Verificado '{}': R$ {}{} ({})", 
-            product.getName(), newPrice, discountInfo, priceChanged ? "MUDOU" : "igual");
+            item.getName(), newPrice, discountInfo, priceChanged ? "MUDOU" : "igual");
         
-        // Handle notifications (só notifica se mudou)
-        if (priceChanged) {
-            checkPriceAndNotify(product, oldPrice, newPrice);
+        // Handle notifications (só notifica se mudou): uma vez por assinante do anúncio
+        if (!isChange || oldPrice.equals(newPrice)) {
+            return 0;
+        }
+        logPriceChange(newPrice < oldPrice ? "PRICE DROP 🔻" : "PRICE INCREASE 📈", item, oldPrice, newPrice);
+        int notified = 0;
+        for (Product product : productRepository.findByCatalogItemId(item.getId())) {
+            priceChangeRollupService.recordChange(product, now);
+            if (checkPriceAndNotify(product, oldPrice, newPrice)) {
+                notified++;
+            }
         }
+        return notified;
     }
 
     /**
      * Checks for price changes and sends notifications if necessary.
+     *
+     * @return true if the in-app notification was created.
      */
-    private void checkPriceAndNotify(Product product, Double oldPrice, Double newPrice) {
-        if (oldPrice == null) return;
+    private boolean checkPriceAndNotify(Product product, Double oldPrice, Double newPrice) {
+        if (oldPrice == null) return false;
         // Only notify if price actually changed
-        if (oldPrice.equals(newPrice)) return;
+        if (oldPrice.equals(newPrice)) return false;
 
         Optional<User> userOpt = userRepository.findById(product.getUserId());
         if (userOpt.isEmpty()) {
             log.warn("Cannot send notification, user not found for product ID {}", product.getId());
-            return;
+            return false;
         }
         User user = userOpt.get();
 
         // Always create in-app notification (bell icon)
+        boolean notified = false;
         try {
             notificationService.createPriceChangeNotification(
                 product.getUserId(),
@@ -335,6 +404,7 @@ public class ProductService {
                 oldPrice,
                 newPrice
             );
+            notified = true;
             log.info("🔔 In-app notification created for product: {}", product.getName());
         } catch (Exception e) {
             log.error("Failed to create in-app notification: {}", e.getMessage());
@@ -342,7 +412,6 @@ public class ProductService {
 
         // Send email notification based on user preferences
         if (newPrice < oldPrice) {
-            logPriceChange("PRICE DROP 🔻", product, oldPrice, newPrice);
             if (product.getNotifyOnPriceDrop()) {
                 log.info("📧 Tentando enviar email de queda de preço para: {} | Brevo configurado: {}", 
                     user.getEmail(), brevoEmailService.isConfigured());
@@ -353,7 +422,6 @@ public class ProductService {
                 log.info("📧 Notificação de queda de preço desativada para produto: {}", product.getName());
             }
         } else if (newPrice > oldPrice) {
-            logPriceChange("PRICE INCREASE 📈", product, oldPrice, newPrice);
             if (product.getNotifyOnPriceIncrease()) {
                 log.info("📧 Tentando enviar email de aumento de preço para: {} | Brevo configurado: {}", 
                     user.getEmail(), brevoEmailService.isConfigured());
@@ -364,17 +432,18 @@ public class ProductService {
                 log.info("📧 Notificação de aumento de preço desativada para produto: {}", product.getName());
             }
         }
+        return notified;
     }
 
     /**
      * Generic logger for price changes.
      */
-    private void logPriceChange(String event, Product product, Double oldPrice, Double newPrice) {
+    private void logPriceChange(String event, CatalogItem item, Double oldPrice, Double newPrice) {
         double change = newPrice - oldPrice;
         double percentChange = (change / oldPrice) * 100;
         
         log.info("========================================");
-        log.info(">> {}: {}", event, product.getName());
+        log.info(">> {}: {}", event, item.getName());
         log.info("   - Previous: R$ {}", String.format("%.2f", oldPrice));
         log.info("   - Current:  R$ {}", String.format("%.2f", newPrice));
         log.info("   - Change:   R$ {} ({}%)",
@@ -396,26 +465,47 @@ public class ProductService {
      * Get price analytics for a user.
      * Includes: changes per day, per hour, top changing products, etc.
      */
+    @Transactional(readOnly = true)
     public AnalyticsResponse getAnalytics(Long userId, int days) {
+        // Lê apenas a tabela price_change_daily (agregada por produto/dia/hora), nunca price_history
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        
+        LocalDate sinceDate = since.toLocalDate();
+        int sinceHour = since.getHour();
+
         // Total de mudanças
-        Long totalChanges = priceHistoryRepository.countTotalChangesForUser(userId, since);
+        Long totalChanges = priceChangeDailyRepository.sumForUser(userId, sinceDate, sinceHour);
         
         // Total de produtos
         List<Product> products = productRepository.findByUserId(userId);
         
-        // Mudanças por data
-        List<Object[]> changesByDateRaw = priceHistoryRepository.countChangesByDateForUser(userId, since);
-        List<AnalyticsResponse.DailyChange> changesByDate = (changesByDateRaw != null ? changesByDateRaw.stream() : java.util.stream.Stream.<Object[]>empty())
-                .map(row -> AnalyticsResponse.DailyChange.builder()
-                        .date(row[0].toString())
-                        .count(((Number) row[1]).longValue())
-                        .build())
-                .collect(Collectors.toList());
+        // Mudanças por data (e, a partir delas, por dia da semana)
+        String[] dayNames = {"", "Domingo", "Segunda", "Terça", "Quarta", "Quinta", "Sexta", "Sábado"};
+        Map<String, Long> changesByDayOfWeek = new LinkedHashMap<>();
+        // Inicializar todos os dias com 0
+        for (int i = 1; i <= 7; i++) {
+            changesByDayOfWeek.put(dayNames[i], 0L);
+        }
+        List<AnalyticsResponse.DailyChange> changesByDate = new ArrayList<>();
+        for (Object[] row : priceChangeDailyRepository.sumByDateForUser(userId, sinceDate, sinceHour)) {
+            LocalDate date = (LocalDate) row[0];
+            long count = ((Number) row[1]).longValue();
+            changesByDate.add(AnalyticsResponse.DailyChange.builder()
+                    .date(date.toString())
+                    .count(count)
+                    .build());
+            // DayOfWeek: 1=SEG..7=DOM → 1=DOM..7=SAB
+            changesByDayOfWeek.merge(dayNames[date.getDayOfWeek().getValue() % 7 + 1], count, Long::sum);
+        }
+        String peakDayOfWeek = "Segunda";
+        long maxDayCount = 0;
+        for (Map.Entry<String, Long> entry : changesByDayOfWeek.entrySet()) {
+            if (entry.getValue() > maxDayCount) {
+                maxDayCount = entry.getValue();
+                peakDayOfWeek = entry.getKey();
+            }
+        }
         
         // Mudanças por hora
-        List<Object[]> changesByHourRaw = priceHistoryRepository.countChangesByHourForUser(userId, since);
         Map<Integer, Long> changesByHour = new LinkedHashMap<>();
         // Inicializar todas as horas com 0
         for (int i = 0; i < 24; i++) {
@@ -423,49 +513,27 @@ public class ProductService {
         }
         int peakHour = 0;
         long maxHourCount = 0;
-        if (changesByHourRaw != null) {
-            for (Object[] row : changesByHourRaw) {
-                int hour = ((Number) row[0]).intValue();
-                long count = ((Number) row[1]).longValue();
-                changesByHour.put(hour, count);
-                if (count > maxHourCount) {
-                    maxHourCount = count;
-                    peakHour = hour;
-                }
-            }
-        }
-        
-        // Mudanças por dia da semana
-        String[] dayNames = {"", "Domingo", "Segunda", "Terça", "Quarta", "Quinta", "Sexta", "Sábado"};
-        List<Object[]> changesByDowRaw = priceHistoryRepository.countChangesByDayOfWeekForUser(userId, since);
-        Map<String, Long> changesByDayOfWeek = new LinkedHashMap<>();
-        // Inicializar todos os dias com 0
-        for (int i = 1; i <= 7; i++) {
-            changesByDayOfWeek.put(dayNames[i], 0L);
-        }
-        String peakDayOfWeek = "Segunda";
-        long maxDayCount = 0;
-        if (changesByDowRaw != null) {
-            for (Object[] row : changesByDowRaw) {
-                int dow = ((Number) row[0]).intValue();
-                long count = ((Number) row[1]).longValue();
-                String dayName = dayNames[dow];
-                changesByDayOfWeek.put(dayName, count);
-                if (count > maxDayCount) {
-                    maxDayCount = count;
-                    peakDayOfWeek = dayName;
-                }
+        for (Object[] row : priceChangeDailyRepository.sumByHourForUser(userId, sinceDate, sinceHour)) {
+            int hour = ((Number) row[0]).intValue();
+            long count = ((Number) row[1]).longValue();
+            changesByHour.put(hour, count);
+            if (count > maxHourCount) {
+                maxHourCount = count;
+                peakHour = hour;
             }
         }
         
-        // Top produtos com mais mudanças
-        List<Object[]> topProductsRaw = priceHistoryRepository.countChangesByProductForUser(userId, since);
-        List<AnalyticsResponse.ProductChangeRank> topChangingProducts = (topProductsRaw != null ? topProductsRaw.stream() : java.util.stream.Stream.<Object[]>empty())
+        // Top produtos com mais mudanças (nomes vêm dos produtos já carregados)
+        Map<Long, String> namesById = products.stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName, (a, b) -> a));
+        List<AnalyticsResponse.ProductChangeRank> topChangingProducts = priceChangeDailyRepository
+                .sumByProductForUser(userId, sinceDate, sinceHour).stream()
+                .filter(row -> namesById.containsKey(((Number) row[0]).longValue()))
                 .limit(10)
                 .map(row -> AnalyticsResponse.ProductChangeRank.builder()
                         .productId(((Number) row[0]).longValue())
-                        .productName(truncate((String) row[1], 50))
-                        .changeCount(((Number) row[2]).longValue())
+                        .productName(truncate(namesById.get(((Number) row[0]).longValue()), 50))
+                        .changeCount(((Number) row[1]).longValue())
                         .build())
                 .collect(Collectors.toList());
         
@@ -0,0 +1,123 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.config.DatabaseVendor;
+import com.mercadolivre.pricemonitor.model.CatalogItem;
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.CatalogItemRepository;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Inserts a new product unless the user already monitors the listing or reached the limit.
+ *
+ * On PostgreSQL an add takes up to four round trips, none of them a check-then-act race:
+ * the user row lock (only when a limit applies), the catalog item insert with ON CONFLICT on
+ * its unique listing_key, the read of that item, and the subscription INSERT ... SELECT whose
+ * limit is a condition of the SELECT and whose duplicates hit ON CONFLICT on
+ * (user_id, catalog_item_id), so concurrent adds of the same listing cannot both succeed.
+ * Other databases (MySQL in development, H2 in tests) check and insert separately; the
+ * unique indexes still reject a concurrent duplicate at commit.
+ *
+ * The limit alone is not safe that way: two adds of different listings both count the
+ * user's subscriptions before either commits. When a limit applies, the user row is locked
+ * (SELECT ... FOR UPDATE) first, so a user's limited adds run one at a time until commit
+ * and each count sees the previous insert.
+ *
+ * The steps stay separate statements on purpose. A statement's snapshot is taken when it
+ * starts, so a lock taken inside the counting statement would not make it see the insert
+ * it waited for, and a catalog item committed by a concurrent add while the ON CONFLICT
+ * waited is only visible to a later statement.
+ */
+@Component
+public class ProductUpsert {
+
+    private static final String INSERT_CATALOG_ITEM =
+            "INSERT INTO catalog_items (id, listing_key, url, name, last_checked_at, created_at, status) "
+                    + "VALUES (nextval('catalog_items_seq'), ?, ?, ?, ?, ?, 'PENDING') "
+                    + "ON CONFLICT (listing_key) DO NOTHING";
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO subscriptions (id, url, catalog_item_id, created_at, user_id, "
+                    + "notify_on_price_drop, notify_on_price_increase) "
+                    + "SELECT nextval('subscriptions_seq'), ?, ?, ?, ?, TRUE, TRUE ";
+    private static final String UNDER_LIMIT = "WHERE (SELECT COUNT(*) FROM subscriptions WHERE user_id = ?) < ? ";
+    private static final String ON_CONFLICT = "ON CONFLICT (user_id, catalog_item_id) DO NOTHING RETURNING id";
+    private static final String LOCK_USER = "SELECT id FROM users WHERE id = ? FOR UPDATE";
+    // Locking read: sees the latest committed rows even under MySQL's REPEATABLE READ snapshot
+    private static final String USER_SUBSCRIPTIONS = "SELECT id FROM subscriptions WHERE user_id = ? FOR UPDATE";
+
+    private final ProductRepository productRepository;
+    private final CatalogItemRepository catalogItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseVendor databaseVendor;
+
+    public ProductUpsert(ProductRepository productRepository, CatalogItemRepository catalogItemRepository,
+                         JdbcTemplate jdbcTemplate, DatabaseVendor databaseVendor) {
+        this.productRepository = productRepository;
+        this.catalogItemRepository = catalogItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseVendor = databaseVendor;
+    }
+
+    /**
+     * Returns the catalog item of the listing, creating it as PENDING (with a temporary
+     * {@code name}) if nobody monitored it yet. Runs in the caller's transaction.
+     */
+    public CatalogItem catalogItemFor(String listingKey, String url, String name) {
+        if (databaseVendor.isPostgres()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.update(INSERT_CATALOG_ITEM, listingKey, url, name, now, now);
+            return catalogItemRepository.findByListingKey(listingKey).orElseThrow();
+        }
+        return catalogItemRepository.findByListingKey(listingKey).orElseGet(() -> {
+            CatalogItem item = new CatalogItem();
+            item.setListingKey(listingKey);
+            item.setUrl(url);
+            item.setName(name);
+            item.setLastCheckedAt(LocalDateTime.now());
+            return catalogItemRepository.save(item);
+        });
+    }
+
+    /**
+     * Inserts {@code product} (id and createdAt are filled in) within the caller's transaction.
+     * Its catalog item must already be set (see {@link #catalogItemFor}).
+     *
+     * @param limit maximum number of products of the user, 0 for no limit
+     * @return the new product id, or null when the user already has the listing or is at the limit
+     */
+    public Long insertIfAbsent(Product product, int limit) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        Timestamp now = Timestamp.valueOf(createdAt);
+        product.setCreatedAt(createdAt);
+        Long catalogItemId = product.getCatalogItem().getId();
+        if (limit > 0) {
+            jdbcTemplate.query(LOCK_USER, rs -> null, product.getUserId());
+        }
+        if (databaseVendor.isPostgres()) {
+            Long id = limit > 0
+                    ? jdbcTemplate.query(INSERT_IF_ABSENT + UNDER_LIMIT + ON_CONFLICT, ProductUpsert::firstId,
+                            product.getUrl(), catalogItemId, now, product.getUserId(), product.getUserId(), limit)
+                    : jdbcTemplate.query(INSERT_IF_ABSENT + ON_CONFLICT, ProductUpsert::firstId,
+                            product.getUrl(), catalogItemId, now, product.getUserId());
+            product.setId(id);
+            return id;
+        }
+        if (limit > 0 && jdbcTemplate.queryForList(USER_SUBSCRIPTIONS, Long.class, product.getUserId()).size() >= limit) {
+            return null;
+        }
+        if (productRepository.existsByCatalogItemIdAndUserId(catalogItemId, product.getUserId())) {
+            return null;
+        }
+        return productRepository.save(product).getId();
+    }
+
+    private static Long firstId(ResultSet rs) throws SQLException {
+        return rs.next() ? rs.getLong(1) : null;
+    }
+}
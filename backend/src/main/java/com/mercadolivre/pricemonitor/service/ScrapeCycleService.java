@@ -0,0 +1,45 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.ScrapeCycle;
+import com.mercadolivre.pricemonitor.repository.ScrapeCycleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Persists and lists the per-cycle performance reports.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ScrapeCycleService {
+
+    public static final int MAX_CYCLES = 200;
+
+    private final ScrapeCycleRepository scrapeCycleRepository;
+
+    /**
+     * Saves the report of a finished cycle. Failures are logged and never break the cycle.
+     */
+    public void record(ScrapeCycleStats stats) {
+        try {
+            ScrapeCycle cycle = scrapeCycleRepository.save(stats.toScrapeCycle());
+            log.info("📈 Cycle {} recorded: products={}, listings={}, p95={}ms, dbWrite={}ms, errors={}",
+                    cycle.getId(), cycle.getProductCount(), cycle.getDistinctListings(),
+                    cycle.getLatencyP95Ms(), cycle.getDbWriteMs(), cycle.getErrorsByClass());
+        } catch (Exception e) {
+            log.error("Failed to record scrape cycle: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the most recent cycles, newest first.
+     */
+    public List<ScrapeCycle> getRecentCycles(int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_CYCLES));
+        return scrapeCycleRepository.findAllByOrderByStartedAtDesc(PageRequest.of(0, size));
+    }
+}
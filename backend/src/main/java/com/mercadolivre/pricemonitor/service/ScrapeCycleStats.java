@@ -0,0 +1,124 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.ScrapeCycle;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the numbers of a single update cycle while it runs.
+ * Scrape callbacks complete on different threads, so every counter is thread-safe.
+ */
+public class ScrapeCycleStats {
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final int productCount;
+    private final int distinctListings;
+
+    private final long[] latencies;
+    private final AtomicInteger latencyCount = new AtomicInteger();
+    private final Map<String, AtomicInteger> requestsBySource = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> errorsByClass = new ConcurrentHashMap<>();
+    private final AtomicInteger successCount = new AtomicInteger();
+    private final AtomicInteger unchangedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private final AtomicInteger notificationsSent = new AtomicInteger();
+    private final AtomicLong dbWriteNanos = new AtomicLong();
+
+    public ScrapeCycleStats(int productCount, int distinctListings) {
+        this.productCount = productCount;
+        this.distinctListings = distinctListings;
+        this.latencies = new long[productCount];
+    }
+
+    public void recordResponse(String source, long latencyMs) {
+        int index = latencyCount.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = latencyMs;
+        }
+        if (source != null) {
+            requestsBySource.computeIfAbsent(source, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    public void recordError(String errorClass) {
+        failedCount.incrementAndGet();
+        errorsByClass.computeIfAbsent(errorClass, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void recordSuccess(long dbWriteNanos, int notifications) {
+        successCount.incrementAndGet();
+        this.dbWriteNanos.addAndGet(dbWriteNanos);
+        notificationsSent.addAndGet(notifications);
+    }
+
+    /**
+     * Records a chunk of catalog items written in one transaction.
+     */
+    public void recordBatchSuccess(int items, long dbWriteNanos, int notifications) {
+        successCount.addAndGet(items);
+        this.dbWriteNanos.addAndGet(dbWriteNanos);
+        notificationsSent.addAndGet(notifications);
+    }
+
+    public void recordUnchanged() {
+        unchangedCount.incrementAndGet();
+    }
+
+    public int getSuccessCount() {
+        return successCount.get();
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Builds the report row. Must be called once all scrapes have completed.
+     */
+    public ScrapeCycle toScrapeCycle() {
+        long[] sorted = Arrays.copyOf(latencies, Math.min(latencyCount.get(), latencies.length));
+        Arrays.sort(sorted);
+
+        ScrapeCycle cycle = new ScrapeCycle();
+        cycle.setStartedAt(startedAt);
+        cycle.setFinishedAt(LocalDateTime.now());
+        cycle.setProductCount(productCount);
+        cycle.setDistinctListings(distinctListings);
+        cycle.setSuccessCount(successCount.get());
+        cycle.setUnchangedCount(unchangedCount.get());
+        cycle.setFailedCount(failedCount.get());
+        cycle.setRequestsBySource(toPlainMap(requestsBySource));
+        cycle.setLatencyP50Ms(percentile(sorted, 50));
+        cycle.setLatencyP95Ms(percentile(sorted, 95));
+        cycle.setLatencyP99Ms(percentile(sorted, 99));
+        cycle.setLatencyMaxMs(sorted.length > 0 ? sorted[sorted.length - 1] : null);
+        cycle.setErrorsByClass(toPlainMap(errorsByClass));
+        cycle.setDbWriteMs(dbWriteNanos.get() / 1_000_000);
+        cycle.setNotificationsSent(notificationsSent.get());
+        return cycle;
+    }
+
+    static Long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static Map<String, Integer> toPlainMap(Map<String, AtomicInteger> counters) {
+        Map<String, Integer> result = new TreeMap<>();
+        counters.forEach((key, value) -> result.put(key, value.get()));
+        return result;
+    }
+}
@@ -1,20 +1,27 @@
 package com.mercadolivre.pricemonitor.service;
 
+import com.mercadolivre.pricemonitor.dto.MlItem;
 import com.mercadolivre.pricemonitor.dto.ScrapeRequest;
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -28,21 +35,26 @@ import java.util.regex.Pattern;
 @Slf4j
 public class ScraperService {
 
+    public static final String SOURCE_ML_API = "ML_API";
+    public static final String SOURCE_ML_API_PRICE = "ML_API_PRICE";
+    public static final String SOURCE_SCRAPER = "SCRAPER";
+
     private final WebClient webClient;
     private final String scraperApiUrl;
+    private final int batchSize;
     private final MercadoLivreService mercadoLivreService;
 
     @Autowired
     public ScraperService(
             @Value("${scraper.api.url}") String scraperApiUrl,
+            @Value("${scraper.batch.size:20}") int batchSize,
+            @Qualifier("scraperWebClient") WebClient scraperWebClient,
             MercadoLivreService mercadoLivreService) {
         this.scraperApiUrl = scraperApiUrl;
+        this.batchSize = batchSize;
         this.mercadoLivreService = mercadoLivreService;
-        this.webClient = WebClient.builder()
-                .baseUrl(scraperApiUrl)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
-        log.info("ScraperService initialized with WebClient for URL: {}", scraperApiUrl);
+        this.webClient = scraperWebClient;
+        log.info("ScraperService initialized with WebClient for URL: {} (batch size {})", scraperApiUrl, batchSize);
     }
 
     /**
@@ -56,14 +68,14 @@ public class ScraperService {
      * @return A CompletableFuture containing the ScrapeResponse, or empty if an error occurs.
      */
     public CompletableFuture<ScrapeResponse> fetchProductData(String productUrl) {
-        String cleanUrl = cleanMercadoLivreUrl(productUrl);
+        String cleanUrl = ListingKeys.canonicalUrl(productUrl);
         log.info("🧹 URL limpa: {}", cleanUrl);
 
         // Detecta se é URL do Mercado Livre
-        if (isMercadoLivreUrl(cleanUrl)) {
+        if (ListingKeys.isMercadoLivreUrl(cleanUrl)) {
             if (mercadoLivreService.hasValidToken()) {
                 log.info("🔑 Usando API oficial do Mercado Livre para: {}", cleanUrl);
-                return fetchFromMercadoLivreApi(cleanUrl);
+                return fetchFromMercadoLivreApi(cleanUrl, false);
             } else {
                 // Sem token OAuth - usar scraper Python como fallback
                 log.warn("⚠️ Token Mercado Livre não disponível. Usando scraper Python como fallback.");
@@ -77,113 +89,184 @@ public class ScraperService {
     }
 
     /**
-     * Verifica se a URL é do Mercado Livre.
-     */
-    private boolean isMercadoLivreUrl(String url) {
-        if (url == null) return false;
-        return url.contains("mercadolivre.com.br") || url.contains("mercadolibre.com");
-    }
-    
-    /**
-     * Limpa a URL do Mercado Livre, removendo parâmetros de tracking e fragmentos.
-     * Também corrige URLs duplicadas.
+     * Fetches data for many products at once (used by the update cycle).
+     * Mercado Livre URLs with a valid OAuth token go through the official API;
+     * everything else is sent to the Python scraper in batches of {@code scraper.batch.size}
+     * URLs per request, with results streamed back as NDJSON.
+     * Duplicate URLs are fetched only once.
+     *
+     * Mercado Livre API lookups are tiered: URLs in {@code metadataUrls} get the full item
+     * (title, pictures), the rest only id/price/original_price. The Python scraper has no
+     * cheaper mode and always returns the full page data.
+     *
+     * @param productUrls  The product URLs.
+     * @param metadataUrls URLs whose title and image are due for a refresh.
+     * @return One future per distinct input URL, keyed by the URL as given.
      */
-    private String cleanMercadoLivreUrl(String url) {
-        if (url == null || url.isEmpty()) {
-            return url;
-        }
-        
-        try {
-            // Detectar e corrigir URL duplicada (se tiver https:// duas vezes)
-            int firstHttps = url.indexOf("https://");
-            int secondHttps = url.indexOf("https://", firstHttps + 1);
-            if (secondHttps > 0) {
-                url = url.substring(0, secondHttps);
-                log.debug("URL duplicada corrigida");
-            }
-            
-            // Remover fragmento (tudo depois de #)
-            int hashIndex = url.indexOf('#');
-            if (hashIndex > 0) {
-                url = url.substring(0, hashIndex);
+    public Map<String, CompletableFuture<ScrapeResponse>> fetchProductDataBatch(Collection<String> productUrls,
+                                                                               Set<String> metadataUrls) {
+        Map<String, CompletableFuture<ScrapeResponse>> results = new LinkedHashMap<>();
+        Map<String, List<CompletableFuture<ScrapeResponse>>> scraperPending = new LinkedHashMap<>();
+        boolean useMlApi = mercadoLivreService.hasValidToken();
+
+        for (String productUrl : productUrls) {
+            if (results.containsKey(productUrl)) {
+                continue;
             }
-            
-            // Remover parâmetros de query (tudo depois de ?)
-            int queryIndex = url.indexOf('?');
-            if (queryIndex > 0) {
-                url = url.substring(0, queryIndex);
+            String cleanUrl = ListingKeys.canonicalUrl(productUrl);
+            if (useMlApi && ListingKeys.isMercadoLivreUrl(cleanUrl)) {
+                results.put(productUrl, fetchFromMercadoLivreApi(cleanUrl, !metadataUrls.contains(productUrl)));
+            } else {
+                CompletableFuture<ScrapeResponse> future = new CompletableFuture<>();
+                scraperPending.computeIfAbsent(cleanUrl, k -> new ArrayList<>()).add(future);
+                results.put(productUrl, future);
             }
-            
-            return url.trim();
-        } catch (Exception e) {
-            log.warn("Erro ao limpar URL: {}", e.getMessage());
-            return url;
         }
+
+        List<String> cleanUrls = new ArrayList<>(scraperPending.keySet());
+        for (int i = 0; i < cleanUrls.size(); i += batchSize) {
+            List<String> chunk = cleanUrls.subList(i, Math.min(i + batchSize, cleanUrls.size()));
+            Map<String, List<CompletableFuture<ScrapeResponse>>> chunkPending = new LinkedHashMap<>();
+            chunk.forEach(url -> chunkPending.put(url, scraperPending.get(url)));
+            dispatchScraperBatch(chunkPending);
+        }
+
+        log.info("📦 Batch fetch: {} URLs ({} via scraper in {} batches)",
+                results.size(), cleanUrls.size(), (cleanUrls.size() + batchSize - 1) / batchSize);
+        return results;
     }
 
     /**
-     * Fetches product data from ML official API.
+     * Sends one batch to the scraper and completes the pending futures as lines arrive.
+     * URLs left unanswered (stream broken, old scraper without /scrape/batch) or answered
+     * with an error line fall back to the single-URL endpoint, which retries.
+     * Latency is measured per URL from the moment this batch is sent.
      */
-    private CompletableFuture<ScrapeResponse> fetchFromMercadoLivreApi(String productUrl) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                long startTime = System.currentTimeMillis();
-                Map<String, Object> productData = mercadoLivreService.getProductByUrl(productUrl);
-                
-                if (productData != null) {
-                    String title = (String) productData.get("title");
-                    Object priceObj = productData.get("price");
-                    Double price = priceObj != null ? Double.valueOf(priceObj.toString()) : null;
-                    
-                    // Buscar preço original (promoção)
-                    Double originalPrice = null;
-                    Integer discountPercent = null;
-                    Object originalPriceObj = productData.get("original_price");
-                    if (originalPriceObj != null) {
-                        originalPrice = Double.valueOf(originalPriceObj.toString());
-                        if (price != null && originalPrice > price) {
-                            discountPercent = (int) Math.round((1 - (price / originalPrice)) * 100);
-                        }
+    private void dispatchScraperBatch(Map<String, List<CompletableFuture<ScrapeResponse>>> pending) {
+        Flux.defer(() -> {
+                    long batchStart = System.nanoTime();
+                    return fetchBatchFromPythonScraper(new ArrayList<>(pending.keySet()))
+                            .doOnNext(response -> response.setLatencyMs(elapsedMillis(batchStart)));
+                })
+                .doOnNext(response -> {
+                    if (response.getError() != null) {
+                        log.warn("⚠️ Scraper batch error for URL '{}': {} - retrying single", response.getUrl(), response.getError());
+                        return;
                     }
-                    
-                    // Buscar imagem
-                    String imageUrl = null;
-                    Object pictures = productData.get("pictures");
-                    if (pictures instanceof java.util.List && !((java.util.List<?>) pictures).isEmpty()) {
-                        Object firstPic = ((java.util.List<?>) pictures).get(0);
-                        if (firstPic instanceof Map) {
-                            imageUrl = (String) ((Map<?, ?>) firstPic).get("url");
-                        }
+                    List<CompletableFuture<ScrapeResponse>> futures = pending.remove(response.getUrl());
+                    if (futures != null) {
+                        futures.forEach(future -> future.complete(response));
                     }
-                    if (imageUrl == null) {
-                        imageUrl = (String) productData.get("thumbnail");
+                })
+                .doOnError(error -> log.error("❌ Scraper batch error: {} - falling back to single requests for {} URLs",
+                        error.getMessage(), pending.size()))
+                .onErrorResume(e -> Flux.empty())
+                .doOnComplete(() -> pending.forEach((url, futures) ->
+                        fetchFromPythonScraper(url).thenAccept(response ->
+                                futures.forEach(future -> future.complete(response)))))
+                .subscribe();
+    }
+
+    /**
+     * Fetches a batch of URLs from the Python scraper as a stream of NDJSON lines.
+     */
+    public Flux<ScrapeResponse> fetchBatchFromPythonScraper(List<String> productUrls) {
+        List<ScrapeRequest> requests = productUrls.stream().map(ScrapeRequest::new).toList();
+        log.debug("Calling scraper batch API with {} URLs", requests.size());
+
+        return webClient.post()
+                .uri("/scrape/batch")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(requests)
+                .retrieve()
+                .bodyToFlux(ScrapeResponse.class)
+                .doOnNext(response -> response.setSource(SOURCE_SCRAPER));
+    }
+
+    /**
+     * Fetches product data from ML official API, falling back to the Python scraper.
+     */
+    private CompletableFuture<ScrapeResponse> fetchFromMercadoLivreApi(String productUrl, boolean priceOnly) {
+        return timed(mercadoLivreApiMono(productUrl, priceOnly)).toFuture();
+    }
+
+    /**
+     * Non-blocking ML API fetch. The whole chain (token, HTTP call, fallback) is reactive,
+     * so no pool thread is held while waiting.
+     */
+    private Mono<ScrapeResponse> mercadoLivreApiMono(String productUrl, boolean priceOnly) {
+        long startTime = System.currentTimeMillis();
+        return mercadoLivreService.getItemByUrl(productUrl, priceOnly)
+                .map(item -> {
+                    ScrapeResponse response = toScrapeResponse(item, productUrl);
+                    if (priceOnly) {
+                        response.setSource(SOURCE_ML_API_PRICE);
                     }
-                    
                     long duration = System.currentTimeMillis() - startTime;
-                    if (discountPercent != null && discountPercent > 0) {
+                    if (response.getDiscountPercent() != null && response.getDiscountPercent() > 0) {
                         log.info("✅ ML API success: title='{}' | price=R${} (🏷️ {}% OFF) | duration={}ms",
-                                title, price, discountPercent, duration);
+                                response.getTitle(), response.getPrice(), response.getDiscountPercent(), duration);
                     } else {
                         log.info("✅ ML API success: title='{}' | price=R${} | duration={}ms",
-                                title, price, duration);
+                                response.getTitle(), response.getPrice(), duration);
                     }
-                    
-                    return new ScrapeResponse(title, price, imageUrl, originalPrice, discountPercent, null);
-                }
-            } catch (Exception e) {
-                log.error("❌ ML API error: {} - Falling back to scraper", e.getMessage());
-            }
-            
-            // Se falhou, tentar com o scraper
-            log.warn("⚠️ ML API falhou, tentando scraper Python...");
-            return fetchFromPythonScraper(productUrl).join();
-        });
+                    return response;
+                })
+                .onErrorResume(e -> {
+                    log.error("❌ ML API error: {} - Falling back to scraper", e.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    // Se falhou, tentar com o scraper
+                    log.warn("⚠️ ML API falhou, tentando scraper Python...");
+                    return pythonScraperMono(productUrl);
+                }));
+    }
+
+    private ScrapeResponse toScrapeResponse(MlItem item, String productUrl) {
+        Double price = item.getPrice();
+
+        // Preço original (promoção)
+        Double originalPrice = item.getOriginalPrice();
+        Integer discountPercent = null;
+        if (originalPrice != null && price != null && originalPrice > price) {
+            discountPercent = (int) Math.round((1 - (price / originalPrice)) * 100);
+        }
+
+        // Imagem: primeira foto, ou thumbnail
+        String imageUrl = null;
+        if (item.getPictures() != null && !item.getPictures().isEmpty()) {
+            imageUrl = item.getPictures().get(0).getUrl();
+        }
+        if (imageUrl == null) {
+            imageUrl = item.getThumbnail();
+        }
+
+        return new ScrapeResponse(item.getTitle(), price, imageUrl, originalPrice, discountPercent, productUrl, SOURCE_ML_API);
     }
 
     /**
      * Fetches product data from Python scraper API.
      */
     private CompletableFuture<ScrapeResponse> fetchFromPythonScraper(String productUrl) {
+        return timed(pythonScraperMono(productUrl)).toFuture();
+    }
+
+    /**
+     * Stamps the response with the time from subscription (this URL's dispatch) until it arrived.
+     */
+    private static Mono<ScrapeResponse> timed(Mono<ScrapeResponse> mono) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return mono.doOnNext(response -> response.setLatencyMs(elapsedMillis(start)));
+        });
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private Mono<ScrapeResponse> pythonScraperMono(String productUrl) {
         String endpoint = "/scrape";
         log.debug("Calling async scraper API: {} | Product URL: {}", scraperApiUrl + endpoint, productUrl);
 
@@ -196,6 +279,7 @@ public class ScraperService {
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(ScrapeResponse.class)
+                .doOnNext(response -> response.setSource(SOURCE_SCRAPER))
                 .doOnSuccess(response -> {
                     long duration = System.currentTimeMillis() - startTime;
                     log.info("✅ Scraper success: title='{}' | price=R${} | duration={}ms",
@@ -210,8 +294,7 @@ public class ScraperService {
                 .onErrorResume(e -> {
                     log.error("❌ Scraper failed after 3 retry attempts for URL: {}", productUrl);
                     return Mono.empty();
-                })
-                .toFuture();
+                });
     }
 
     /**
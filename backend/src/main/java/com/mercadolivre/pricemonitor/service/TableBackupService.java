@@ -0,0 +1,428 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.config.DatabaseVendor;
+import com.mercadolivre.pricemonitor.config.DatabaseWorkload;
+import com.mercadolivre.pricemonitor.config.IdSequenceAligner;
+import com.mercadolivre.pricemonitor.config.Workload;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports catalog_items, subscriptions, price_history and notifications to {@code backups/}
+ * with PostgreSQL's COPY protocol, and restores such an export.
+ *
+ * The manifest and every table are read in one REPEATABLE READ transaction, so the export
+ * is a single consistent snapshot: no subscription without its catalog item, no history row
+ * newer than the bounds in the manifest. The transaction is not marked read-only in Spring,
+ * which would route it to the read replica; it runs on the primary and declares itself
+ * READ ONLY to PostgreSQL instead. It holds back vacuum for as long as the export runs.
+ *
+ * Each table is copied in id ranges of {@code backup.export.chunk-ids}, streamed through
+ * gzip into a file channel: memory use is a few fixed buffers whatever the table size, and
+ * the COPY output is throttled to {@code backup.export.max-bytes-per-second}. Finished
+ * exports get a COMPLETE marker; the last {@code backup.export.keep} are kept. An
+ * interrupted export is not resumed, since its snapshot is gone: the next run deletes it
+ * and starts over.
+ *
+ * Restore (with the application stopped elsewhere):
+ * {@code java -jar app.jar --backup.restore.from=backups/export_... --spring.main.web-application-type=none}
+ * replaces the four tables in one transaction. price_change_daily is derived from
+ * price_history and not exported: the restore truncates it in the same transaction and
+ * rebuilds it from the restored history. PostgreSQL only; does nothing on MySQL/H2.
+ */
+@Component
+@Slf4j
+@DatabaseWorkload(Workload.MAINTENANCE)
+public class TableBackupService {
+
+    /** Restore order: referenced tables first. */
+    static final List<String> TABLES = List.of("catalog_items", "subscriptions", "price_history", "notifications");
+
+    /** Rollup of price_history, recomputed after a restore instead of exported. */
+    private static final String ROLLUP_TABLE = "price_change_daily";
+
+    private static final String EXPORT_PREFIX = "export_";
+    private static final DateTimeFormatter EXPORT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String MANIFEST = "manifest.properties";
+    private static final String COMPLETE = "COMPLETE";
+    private static final String CHUNK_SUFFIX = ".csv.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseVendor databaseVendor;
+    private final IdSequenceAligner idSequenceAligner;
+    private final PriceChangeRollupService rollupService;
+    private final TransactionTemplate exportTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Path backupDir;
+    private final long chunkIds;
+    private final long maxBytesPerSecond;
+    private final int keep;
+
+    public TableBackupService(JdbcTemplate jdbcTemplate,
+                              DatabaseVendor databaseVendor,
+                              IdSequenceAligner idSequenceAligner,
+                              PriceChangeRollupService rollupService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${backup.export.dir:backups}") String backupDir,
+                              @Value("${backup.export.chunk-ids:100000}") long chunkIds,
+                              @Value("${backup.export.max-bytes-per-second:4194304}") long maxBytesPerSecond,
+                              @Value("${backup.export.keep:7}") int keep) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseVendor = databaseVendor;
+        this.idSequenceAligner = idSequenceAligner;
+        this.rollupService = rollupService;
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.backupDir = Paths.get(backupDir);
+        this.chunkIds = chunkIds;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.keep = keep;
+    }
+
+    @Scheduled(cron = "${backup.export.cron:-}")
+    public void scheduledExport() {
+        try {
+            export();
+        } catch (Exception e) {
+            log.error("❌ Falha no export de backup (será refeito na próxima execução): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs an export and returns its directory, or null when the database is not PostgreSQL.
+     */
+    public Path export() throws IOException {
+        if (!databaseVendor.isPostgres()) {
+            log.debug("Export via COPY disponível apenas no PostgreSQL; ignorando");
+            return null;
+        }
+        Files.createDirectories(backupDir);
+        deleteUnfinishedExports();
+        Path dir = backupDir.resolve(EXPORT_PREFIX + LocalDateTime.now().format(EXPORT_NAME));
+        Files.createDirectories(dir);
+        log.info("📦 Iniciando export de backup em {}", dir);
+
+        long started = System.currentTimeMillis();
+        int written;
+        try {
+            written = exportTransaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+                jdbcTemplate.execute("SET TRANSACTION READ ONLY");
+                CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+                try {
+                    return exportSnapshot(dir, copy);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.createFile(dir.resolve(COMPLETE));
+        log.info("✅ Export de backup concluído em {} ({} blocos gravados em {}ms)",
+                dir, written, System.currentTimeMillis() - started);
+        prune();
+        return dir;
+    }
+
+    /**
+     * Writes the manifest and every chunk from the current transaction's snapshot.
+     */
+    private int exportSnapshot(Path dir, CopyManager copy) throws IOException {
+        Properties manifest = newManifest();
+        writeAtomically(dir.resolve(MANIFEST), out -> manifest.store(out, "COPY export (TableBackupService)"));
+        int written = 0;
+        for (String table : TABLES) {
+            long minId = Long.parseLong(manifest.getProperty(table + ".min-id"));
+            long maxId = Long.parseLong(manifest.getProperty(table + ".max-id"));
+            String columns = manifest.getProperty(table + ".columns");
+            for (ChunkRange range : chunkRanges(minId, maxId, chunkIds)) {
+                Path file = dir.resolve(String.format("%s.%06d%s", table, range.index(), CHUNK_SUFFIX));
+                exportChunk(copy, file, "COPY (SELECT " + columns + " FROM " + table
+                        + " WHERE id > " + range.fromExclusive() + " AND id <= " + range.toInclusive()
+                        + ") TO STDOUT WITH (FORMAT csv)");
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Replaces catalog_items, subscriptions, price_history and notifications with the
+     * content of a complete export and rebuilds price_change_daily from the restored
+     * history, all in one transaction, then realigns the id sequences.
+     */
+    public void restore(Path dir) throws IOException {
+        if (!databaseVendor.isPostgres()) {
+            throw new IllegalStateException("Restore via COPY requer PostgreSQL");
+        }
+        if (!Files.exists(dir.resolve(COMPLETE))) {
+            throw new IllegalStateException("Export incompleto ou inexistente: " + dir);
+        }
+        Properties manifest = readManifest(dir);
+        log.warn("⚠️ Restaurando {} a partir de {}: os dados atuais dessas tabelas serão substituídos", TABLES, dir);
+
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            jdbcTemplate.execute("TRUNCATE " + String.join(", ", TABLES) + ", " + ROLLUP_TABLE);
+            ensurePartitions(manifest.getProperty("price_history.first-month"));
+            for (String table : TABLES) {
+                String sql = "COPY " + table + " (" + manifest.getProperty(table + ".columns")
+                        + ") FROM STDIN WITH (FORMAT csv)";
+                long rows = 0;
+                for (Path chunk : chunks(dir, table)) {
+                    try (FileChannel channel = FileChannel.open(chunk, StandardOpenOption.READ);
+                         InputStream in = new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE)) {
+                        rows += copy.copyIn(sql, in, BUFFER_SIZE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                log.info("   {}: {} linhas restauradas", table, rows);
+            }
+            rollupService.reconcile(LocalDate.EPOCH);
+            return null;
+        }));
+        idSequenceAligner.align();
+        log.info("✅ Restore concluído a partir de {}", dir);
+    }
+
+    /**
+     * One id range of a table export: ids in (fromExclusive, toInclusive], aligned to
+     * multiples of {@code chunkSize}.
+     */
+    record ChunkRange(long index, long fromExclusive, long toInclusive) {
+    }
+
+    /**
+     * The ranges covering ids minId..maxId (both inclusive); none when the table was empty
+     * (maxId 0). The last range stops at maxId, the bound recorded in the manifest.
+     */
+    static List<ChunkRange> chunkRanges(long minId, long maxId, long chunkSize) {
+        if (maxId == 0) {
+            return List.of();
+        }
+        List<ChunkRange> ranges = new ArrayList<>();
+        for (long chunk = Math.floorDiv(minId - 1, chunkSize); chunk <= Math.floorDiv(maxId - 1, chunkSize); chunk++) {
+            ranges.add(new ChunkRange(chunk, chunk * chunkSize, Math.min((chunk + 1) * chunkSize, maxId)));
+        }
+        return ranges;
+    }
+
+    private void exportChunk(CopyManager copy, Path file, String sql) throws IOException {
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+            OutputStream out = new ThrottledOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE), maxBytesPerSecond);
+            try {
+                copy.copyOut(sql, out);
+            } catch (SQLException e) {
+                throw new IOException("COPY falhou: " + sql, e);
+            }
+            out.flush();
+            gzip.finish();
+            channel.force(true);
+        }
+        Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Fixes what the export will contain: column lists and id bounds, plus the oldest
+     * price_history partition so a restore can recreate the partitions first.
+     */
+    private Properties newManifest() {
+        Properties manifest = new Properties();
+        manifest.setProperty("chunk-ids", Long.toString(chunkIds));
+        for (String table : TABLES) {
+            List<String> columns = jdbcTemplate.queryForList(
+                    "SELECT column_name FROM information_schema.columns "
+                            + "WHERE table_schema = current_schema() AND table_name = ? ORDER BY ordinal_position",
+                    String.class, table);
+            manifest.setProperty(table + ".columns", String.join(", ", columns));
+            Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table, Long.class);
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            manifest.setProperty(table + ".min-id", Long.toString(minId != null ? minId : 0));
+            manifest.setProperty(table + ".max-id", Long.toString(maxId != null ? maxId : 0));
+        }
+        jdbcTemplate.queryForList(
+                        "SELECT c.relname FROM pg_inherits i "
+                                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                                + "JOIN pg_class p ON p.oid = i.inhparent "
+                                + "WHERE p.relname = 'price_history'", String.class).stream()
+                .map(PriceHistoryPartitionMaintainer::partitionMonth)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .ifPresent(month -> manifest.setProperty("price_history.first-month", month.toString()));
+        return manifest;
+    }
+
+    /**
+     * COPY into a partitioned price_history needs the partition of every month restored.
+     */
+    private void ensurePartitions(String firstMonth) {
+        if (firstMonth == null) {
+            return;
+        }
+        for (YearMonth month = YearMonth.parse(firstMonth); !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+            jdbcTemplate.queryForObject("SELECT price_history_ensure_partition(?)", String.class, month.atDay(1));
+        }
+    }
+
+    /** Exports without a COMPLETE marker: their snapshot is gone, so they can't be finished. */
+    private void deleteUnfinishedExports() throws IOException {
+        for (Path dir : exports()) {
+            if (!Files.exists(dir.resolve(COMPLETE))) {
+                delete(dir);
+                log.info("🗑️ Export interrompido removido: {}", dir);
+            }
+        }
+    }
+
+    /**
+     * Keeps the newest {@code keep} complete exports.
+     */
+    private void prune() throws IOException {
+        int complete = 0;
+        for (Path dir : exports()) {
+            if (Files.exists(dir.resolve(COMPLETE)) && ++complete <= keep) {
+                continue;
+            }
+            delete(dir);
+            log.info("🗑️ Export antigo removido: {}", dir);
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** Export directories, newest first. */
+    private List<Path> exports() throws IOException {
+        try (Stream<Path> dirs = Files.list(backupDir)) {
+            return dirs.filter(Files::isDirectory)
+                    .filter(dir -> dir.getFileName().toString().startsWith(EXPORT_PREFIX))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+    }
+
+    private static List<Path> chunks(Path dir, String table) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(table + ".") && name.endsWith(CHUNK_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Properties readManifest(Path dir) throws IOException {
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(dir.resolve(MANIFEST))) {
+            manifest.load(in);
+        }
+        return manifest;
+    }
+
+    private interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static void writeAtomically(Path file, Writer writer) throws IOException {
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        try (OutputStream out = Files.newOutputStream(part)) {
+            writer.write(out);
+        }
+        Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Sleeps whenever more than {@code bytesPerSecond} have been written on average since
+     * the stream was opened; the COPY then waits on the socket instead of reading ahead.
+     */
+    static final class ThrottledOutputStream extends FilterOutputStream {
+
+        private final long bytesPerSecond;
+        private final long startNanos = System.nanoTime();
+        private long written;
+
+        ThrottledOutputStream(OutputStream out, long bytesPerSecond) {
+            super(out);
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            throttle(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            throttle(len);
+        }
+
+        private void throttle(int bytes) throws IOException {
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            written += bytes;
+            long aheadMillis = written * 1000 / bytesPerSecond - (System.nanoTime() - startNanos) / 1_000_000;
+            if (aheadMillis > 0) {
+                try {
+                    Thread.sleep(aheadMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Export interrompido");
+                }
+            }
+        }
+    }
+}
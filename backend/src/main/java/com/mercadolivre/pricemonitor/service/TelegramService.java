@@ -236,8 +236,7 @@ public class TelegramService {
      * Link Telegram account using code (called by bot webhook).
      */
     public boolean linkAccount(String code, String chatId) {
-        Optional<User> userOpt = userRepository.findAll().stream()
-            .filter(u -> code.equals(u.getTelegramLinkCode()))
+        Optional<User> userOpt = userRepository.findByTelegramLinkCode(code).stream()
             .filter(u -> u.getTelegramLinkExpires() != null && 
                         u.getTelegramLinkExpires().isAfter(LocalDateTime.now()))
             .findFirst();
@@ -0,0 +1,72 @@
+-- ====================================
+-- Schema changes made before Flyway took over, applied to baselined databases:
+--  * products, price_history and notifications take ids from pooled sequences (Hibernate
+--    emulates them on MySQL with one-row *_seq tables) instead of AUTO_INCREMENT, so their
+--    inserts can be batched; each next_val starts past MAX(id) by the allocationSize (50)
+--  * products.listing_key (filled by V1_2 with the application's canonicalizer),
+--    last_history_at and metadata_refreshed_at
+--  * scrape_cycles (update cycle reports) and catalog_resolutions (/p/ link cache)
+-- ====================================
+
+-- The history foreign key blocks changing products.id; it comes back under the name
+-- later migrations use. Hibernate named it after a hash, so look it up.
+SET @fk = (SELECT constraint_name FROM information_schema.referential_constraints
+           WHERE constraint_schema = DATABASE() AND table_name = 'price_history'
+             AND referenced_table_name = 'products' LIMIT 1);
+SET @drop_fk = IF(@fk IS NULL, 'DO 0', CONCAT('ALTER TABLE price_history DROP FOREIGN KEY `', @fk, '`'));
+PREPARE drop_fk FROM @drop_fk;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
+
+ALTER TABLE products MODIFY id BIGINT NOT NULL;
+ALTER TABLE price_history MODIFY id BIGINT NOT NULL;
+ALTER TABLE notifications MODIFY id BIGINT NOT NULL;
+
+ALTER TABLE price_history ADD CONSTRAINT fk_price_history_product
+    FOREIGN KEY (product_id) REFERENCES products (id);
+
+CREATE TABLE products_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO products_seq SELECT COALESCE(MAX(id), 0) + 50 FROM products;
+CREATE TABLE price_history_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO price_history_seq SELECT COALESCE(MAX(id), 0) + 50 FROM price_history;
+CREATE TABLE notifications_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO notifications_seq SELECT COALESCE(MAX(id), 0) + 50 FROM notifications;
+
+ALTER TABLE products
+    ADD COLUMN listing_key VARCHAR(2048),
+    ADD COLUMN last_history_at DATETIME(6),
+    ADD COLUMN metadata_refreshed_at DATETIME(6);
+
+-- InnoDB keys are limited to 3072 bytes, so long VARCHARs are indexed by prefix
+CREATE INDEX idx_products_listing_key ON products (listing_key(255));
+CREATE INDEX idx_products_user_listing_key ON products (user_id, listing_key(255));
+
+-- Periodic history writes are decided from last_history_at instead of reading the history
+UPDATE products p
+SET last_history_at = (SELECT MAX(ph.recorded_at) FROM price_history ph WHERE ph.product_id = p.id)
+WHERE p.last_history_at IS NULL;
+
+CREATE TABLE scrape_cycles (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    product_count INTEGER,
+    distinct_listings INTEGER,
+    success_count INTEGER,
+    unchanged_count INTEGER,
+    failed_count INTEGER,
+    requests_by_source JSON,
+    latency_p50_ms BIGINT,
+    latency_p95_ms BIGINT,
+    latency_p99_ms BIGINT,
+    latency_max_ms BIGINT,
+    errors_by_class JSON,
+    db_write_ms BIGINT,
+    notifications_sent INTEGER
+) ENGINE=InnoDB;
+
+CREATE TABLE catalog_resolutions (
+    catalog_id VARCHAR(32) NOT NULL PRIMARY KEY,
+    item_id VARCHAR(32) NOT NULL,
+    resolved_at DATETIME(6) NOT NULL
+) ENGINE=InnoDB;
@@ -0,0 +1,82 @@
+-- ====================================
+-- Baseline: the schema Hibernate (ddl-auto=update) created before Flyway, with
+-- AUTO_INCREMENT ids and Hibernate's generated constraint names. Databases that already
+-- have these tables are baselined at V1 and skip this script
+-- (spring.flyway.baseline-on-migrate); everything added since comes in the following versions.
+-- ====================================
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    email_verified BIT NOT NULL,
+    verification_token VARCHAR(255),
+    verification_token_expires DATETIME(6),
+    reset_password_token VARCHAR(255),
+    reset_password_token_expires DATETIME(6),
+    telegram_chat_id VARCHAR(255),
+    telegram_enabled BIT,
+    telegram_link_code VARCHAR(255),
+    telegram_link_expires DATETIME(6),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE products (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    url VARCHAR(2048) NOT NULL,
+    image_url VARCHAR(2048),
+    current_price FLOAT(53),
+    last_price FLOAT(53),
+    original_price FLOAT(53),
+    discount_percent INTEGER,
+    last_checked_at DATETIME(6),
+    created_at DATETIME(6),
+    user_id BIGINT NOT NULL,
+    notify_on_price_drop BIT,
+    notify_on_price_increase BIT,
+    status VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE price_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    price FLOAT(53) NOT NULL,
+    recorded_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE notifications (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT,
+    product_name VARCHAR(255),
+    type ENUM ('PRICE_DROP', 'PRICE_INCREASE', 'PRODUCT_ADDED', 'SYSTEM') NOT NULL,
+    message TEXT NOT NULL,
+    old_price FLOAT(53),
+    new_price FLOAT(53),
+    is_read BIT,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE ml_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    access_token TEXT,
+    refresh_token TEXT,
+    token_type VARCHAR(255),
+    expires_at DATETIME(6),
+    user_id_ml BIGINT,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+ALTER TABLE users ADD CONSTRAINT UK_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email);
+ALTER TABLE ml_tokens ADD CONSTRAINT FK2ux6uqfhkq140u7d0srjyhwtv FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE price_history ADD CONSTRAINT FK1qwxogo4nas36rqukuaw0q8u6 FOREIGN KEY (product_id) REFERENCES products (id);
@@ -0,0 +1,23 @@
+-- ====================================
+-- Indexes for the predicates of the repository queries.
+-- InnoDB online DDL (ALGORITHM=INPLACE, LOCK=NONE) keeps the tables writable while they build.
+-- ====================================
+
+-- History of a product (charts, last 30, analytics joins)
+CREATE INDEX idx_price_history_product_recorded ON price_history (product_id, recorded_at) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Products of a user; duplicate check by URL (prefix: InnoDB key size limit)
+CREATE INDEX idx_products_user ON products (user_id) ALGORITHM=INPLACE LOCK=NONE;
+CREATE INDEX idx_products_url_user ON products (url(255), user_id) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Notification bell: list, unread list and unread count per user
+CREATE INDEX idx_notifications_user_read_created ON notifications (user_id, is_read, created_at) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Token lookups (e-mail verification, password reset, Telegram linking)
+CREATE INDEX idx_users_verification_token ON users (verification_token) ALGORITHM=INPLACE LOCK=NONE;
+CREATE INDEX idx_users_reset_password_token ON users (reset_password_token) ALGORITHM=INPLACE LOCK=NONE;
+CREATE INDEX idx_users_telegram_link_code ON users (telegram_link_code) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Mercado Livre account of a user / of an ML user id
+CREATE INDEX idx_ml_tokens_user ON ml_tokens (user_id) ALGORITHM=INPLACE LOCK=NONE;
+CREATE INDEX idx_ml_tokens_user_id_ml ON ml_tokens (user_id_ml) ALGORITHM=INPLACE LOCK=NONE;
@@ -0,0 +1,16 @@
+-- ====================================
+-- Rollup of real price changes per product / day / hour, read by the analytics
+-- dashboard instead of price_history (see PriceChangeRollupService).
+-- Filled at startup from the existing history when empty.
+-- ====================================
+
+CREATE TABLE price_change_daily (
+    product_id BIGINT NOT NULL,
+    change_date DATE NOT NULL,
+    change_hour INTEGER NOT NULL,
+    user_id BIGINT NOT NULL,
+    change_count BIGINT NOT NULL,
+    PRIMARY KEY (product_id, change_date, change_hour)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_price_change_daily_user_date ON price_change_daily (user_id, change_date);
@@ -0,0 +1,18 @@
+-- ====================================
+-- Each price_history row stores the previous row's price and whether it is a real
+-- change, written at insert time. Existing rows are filled once with LAG() over each
+-- product's rows (by id, the order the analytics always used).
+-- ====================================
+
+ALTER TABLE price_history
+    ADD COLUMN previous_price FLOAT(53),
+    ADD COLUMN is_change BIT NOT NULL DEFAULT 0;
+
+UPDATE price_history ph
+JOIN (
+    SELECT id, LAG(price) OVER (PARTITION BY product_id ORDER BY id) AS previous_price
+    FROM price_history
+) prev ON prev.id = ph.id
+SET ph.previous_price = prev.previous_price,
+    ph.is_change = (prev.previous_price <> ph.price)
+WHERE prev.previous_price IS NOT NULL;
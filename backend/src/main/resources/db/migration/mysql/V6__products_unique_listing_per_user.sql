@@ -0,0 +1,21 @@
+-- ====================================
+-- A user monitors each listing at most once: (user_id, listing_key) becomes unique.
+-- Duplicates left by concurrent adds are removed first, keeping the oldest product of each
+-- pair; the younger copy's history and rollup rows describe the same listing and go with it.
+-- The key is a prefix index (InnoDB key size), so uniqueness applies to the first 255
+-- characters of listing_key; real keys (item/catalog ids, clean URLs) are far shorter.
+-- ====================================
+
+DELETE ph FROM price_history ph
+JOIN products p ON p.id = ph.product_id
+JOIN products o ON o.user_id = p.user_id AND LEFT(o.listing_key, 255) = LEFT(p.listing_key, 255) AND o.id < p.id;
+
+DELETE d FROM price_change_daily d
+JOIN products p ON p.id = d.product_id
+JOIN products o ON o.user_id = p.user_id AND LEFT(o.listing_key, 255) = LEFT(p.listing_key, 255) AND o.id < p.id;
+
+DELETE p FROM products p
+JOIN products o ON o.user_id = p.user_id AND LEFT(o.listing_key, 255) = LEFT(p.listing_key, 255) AND o.id < p.id;
+
+DROP INDEX idx_products_user_listing_key ON products;
+CREATE UNIQUE INDEX uq_products_user_listing_key ON products (user_id, listing_key(255));
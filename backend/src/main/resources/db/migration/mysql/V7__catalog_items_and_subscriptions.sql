@@ -0,0 +1,103 @@
+-- ====================================
+-- Listings are stored once: catalog_items holds the scraped state and owns price_history,
+-- and products becomes subscriptions, a user's link to a catalog item with only their URL
+-- and notification preferences.
+--
+-- Each listing's catalog item takes the id of its oldest product; the other copies' history
+-- rows describe the same listing and move to it. Product ids stay as subscription ids.
+-- Listing keys are compared on the 255-character prefix that the unique index covers
+-- (InnoDB key size), as in V6.
+-- ====================================
+
+-- (user_id, listing_key) uniqueness moves to (user_id, catalog_item_id) below
+DROP INDEX uq_products_user_listing_key ON products;
+
+CREATE TABLE catalog_items_seq (next_val BIGINT) ENGINE=InnoDB;
+
+CREATE TABLE catalog_items (
+    id BIGINT NOT NULL PRIMARY KEY,
+    listing_key VARCHAR(2048) NOT NULL,
+    url VARCHAR(2048) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    image_url VARCHAR(2048),
+    current_price FLOAT(53),
+    last_price FLOAT(53),
+    original_price FLOAT(53),
+    discount_percent INTEGER,
+    last_checked_at DATETIME(6),
+    last_history_at DATETIME(6),
+    metadata_refreshed_at DATETIME(6),
+    status VARCHAR(255),
+    created_at DATETIME(6)
+) ENGINE=InnoDB;
+
+INSERT INTO catalog_items (id, listing_key, url, name, image_url, current_price, last_price, original_price,
+                           discount_percent, last_checked_at, last_history_at, metadata_refreshed_at, status, created_at)
+SELECT p.id, p.listing_key, p.url, p.name, p.image_url, p.current_price, p.last_price, p.original_price,
+       p.discount_percent, p.last_checked_at, p.last_history_at, p.metadata_refreshed_at, p.status, p.created_at
+FROM products p
+WHERE NOT EXISTS (SELECT 1 FROM products o
+                  WHERE LEFT(o.listing_key, 255) = LEFT(p.listing_key, 255) AND o.id < p.id);
+
+CREATE UNIQUE INDEX uq_catalog_items_listing_key ON catalog_items (listing_key(255));
+
+INSERT INTO catalog_items_seq SELECT COALESCE(MAX(id), 0) + 50 FROM catalog_items;
+
+-- price_history: move the other copies' rows to the listing's catalog item. A change the
+-- surviving copy also recorded within the hour stays as a plain observation, so the
+-- rollup does not count the same change twice. DISTINCT materializes the derived table,
+-- which MySQL requires to read the table being updated.
+UPDATE price_history d
+JOIN products p ON p.id = d.product_id
+JOIN catalog_items c ON LEFT(c.listing_key, 255) = LEFT(p.listing_key, 255) AND c.id <> p.id
+JOIN (SELECT DISTINCT product_id, price, recorded_at FROM price_history WHERE is_change = TRUE) s
+  ON s.product_id = c.id AND s.price = d.price
+ AND s.recorded_at BETWEEN d.recorded_at - INTERVAL 1 HOUR AND d.recorded_at + INTERVAL 1 HOUR
+SET d.is_change = FALSE
+WHERE d.is_change = TRUE;
+
+UPDATE price_history d
+JOIN products p ON p.id = d.product_id
+JOIN catalog_items c ON LEFT(c.listing_key, 255) = LEFT(p.listing_key, 255)
+SET d.product_id = c.id
+WHERE c.id <> p.id;
+
+ALTER TABLE price_history
+    DROP FOREIGN KEY fk_price_history_product,
+    RENAME COLUMN product_id TO catalog_item_id,
+    RENAME INDEX idx_price_history_product_recorded TO idx_price_history_catalog_item_recorded;
+ALTER TABLE price_history ADD CONSTRAINT fk_price_history_catalog_item
+    FOREIGN KEY (catalog_item_id) REFERENCES catalog_items (id);
+
+-- products → subscriptions
+ALTER TABLE products ADD COLUMN catalog_item_id BIGINT;
+UPDATE products p
+JOIN catalog_items c ON LEFT(c.listing_key, 255) = LEFT(p.listing_key, 255)
+SET p.catalog_item_id = c.id;
+
+RENAME TABLE products TO subscriptions, products_seq TO subscriptions_seq;
+
+-- Dropped before its column, like the unique index at the top
+ALTER TABLE subscriptions
+    DROP INDEX idx_products_listing_key,
+    RENAME INDEX idx_products_user TO idx_subscriptions_user,
+    RENAME INDEX idx_products_url_user TO idx_subscriptions_url_user;
+
+ALTER TABLE subscriptions
+    MODIFY catalog_item_id BIGINT NOT NULL,
+    ADD CONSTRAINT fk_subscriptions_catalog_item FOREIGN KEY (catalog_item_id) REFERENCES catalog_items (id),
+    DROP COLUMN listing_key,
+    DROP COLUMN name,
+    DROP COLUMN image_url,
+    DROP COLUMN current_price,
+    DROP COLUMN last_price,
+    DROP COLUMN original_price,
+    DROP COLUMN discount_percent,
+    DROP COLUMN last_checked_at,
+    DROP COLUMN last_history_at,
+    DROP COLUMN metadata_refreshed_at,
+    DROP COLUMN status;
+
+-- A user subscribes to each listing once; the catalog item index serves the notification fan-out
+CREATE UNIQUE INDEX uq_subscriptions_user_catalog_item ON subscriptions (user_id, catalog_item_id);
+CREATE INDEX idx_subscriptions_catalog_item ON subscriptions (catalog_item_id);
@@ -0,0 +1,62 @@
+-- ====================================
+-- Schema changes made before Flyway took over, applied to baselined databases:
+--  * products, price_history and notifications take ids from pooled sequences
+--    (INCREMENT BY 50, the allocationSize of their @SequenceGenerator) instead of
+--    BIGSERIAL, so Hibernate can batch their inserts; each sequence starts past MAX(id)
+--  * products.listing_key (filled by V1_2 with the application's canonicalizer),
+--    last_history_at and metadata_refreshed_at
+--  * scrape_cycles (update cycle reports) and catalog_resolutions (/p/ link cache)
+-- Written with IF [NOT] EXISTS so a database whose ddl-auto already made some of them passes.
+-- ====================================
+
+ALTER TABLE products ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS products_id_seq;
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM products));
+
+ALTER TABLE price_history ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS price_history_id_seq;
+CREATE SEQUENCE IF NOT EXISTS price_history_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('price_history_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM price_history));
+
+ALTER TABLE notifications ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS notifications_id_seq;
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('notifications_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM notifications));
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS listing_key VARCHAR(2048);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS last_history_at TIMESTAMP(6);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS metadata_refreshed_at TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_products_listing_key ON products (listing_key);
+CREATE INDEX IF NOT EXISTS idx_products_user_listing_key ON products (user_id, listing_key);
+
+-- Periodic history writes are decided from last_history_at instead of reading the history
+UPDATE products p
+SET last_history_at = (SELECT MAX(ph.recorded_at) FROM price_history ph WHERE ph.product_id = p.id)
+WHERE p.last_history_at IS NULL;
+
+CREATE TABLE IF NOT EXISTS scrape_cycles (
+    id BIGSERIAL PRIMARY KEY,
+    started_at TIMESTAMP(6) NOT NULL,
+    finished_at TIMESTAMP(6),
+    product_count INTEGER,
+    distinct_listings INTEGER,
+    success_count INTEGER,
+    unchanged_count INTEGER,
+    failed_count INTEGER,
+    requests_by_source JSONB,
+    latency_p50_ms BIGINT,
+    latency_p95_ms BIGINT,
+    latency_p99_ms BIGINT,
+    latency_max_ms BIGINT,
+    errors_by_class JSONB,
+    db_write_ms BIGINT,
+    notifications_sent INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS catalog_resolutions (
+    catalog_id VARCHAR(32) PRIMARY KEY,
+    item_id VARCHAR(32) NOT NULL,
+    resolved_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,81 @@
+-- ====================================
+-- Baseline: the schema Hibernate (ddl-auto=update) created before Flyway, with IDENTITY
+-- ids and Hibernate's generated constraint names. Databases that already have these
+-- tables are baselined at V1 and skip this script (spring.flyway.baseline-on-migrate);
+-- everything added since comes in the following versions.
+-- ====================================
+
+CREATE TABLE users (
+    id BIGSERIAL NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    email_verified BOOLEAN NOT NULL,
+    verification_token VARCHAR(255),
+    verification_token_expires TIMESTAMP(6),
+    reset_password_token VARCHAR(255),
+    reset_password_token_expires TIMESTAMP(6),
+    telegram_chat_id VARCHAR(255),
+    telegram_enabled BOOLEAN,
+    telegram_link_code VARCHAR(255),
+    telegram_link_expires TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE products (
+    id BIGSERIAL NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    url VARCHAR(2048) NOT NULL,
+    image_url VARCHAR(2048),
+    current_price FLOAT(53),
+    last_price FLOAT(53),
+    original_price FLOAT(53),
+    discount_percent INTEGER,
+    last_checked_at TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    user_id BIGINT NOT NULL,
+    notify_on_price_drop BOOLEAN,
+    notify_on_price_increase BOOLEAN,
+    status VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE price_history (
+    id BIGSERIAL NOT NULL,
+    product_id BIGINT NOT NULL,
+    price FLOAT(53) NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE notifications (
+    id BIGSERIAL NOT NULL,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT,
+    product_name VARCHAR(255),
+    type VARCHAR(255) NOT NULL CHECK (type IN ('PRICE_DROP', 'PRICE_INCREASE', 'PRODUCT_ADDED', 'SYSTEM')),
+    message TEXT NOT NULL,
+    old_price FLOAT(53),
+    new_price FLOAT(53),
+    is_read BOOLEAN,
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ml_tokens (
+    id BIGSERIAL NOT NULL,
+    access_token TEXT,
+    refresh_token TEXT,
+    token_type VARCHAR(255),
+    expires_at TIMESTAMP(6),
+    user_id_ml BIGINT,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE ml_tokens ADD CONSTRAINT FK2ux6uqfhkq140u7d0srjyhwtv FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE price_history ADD CONSTRAINT FK1qwxogo4nas36rqukuaw0q8u6 FOREIGN KEY (product_id) REFERENCES products;
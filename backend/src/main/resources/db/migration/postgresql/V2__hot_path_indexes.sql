@@ -0,0 +1,25 @@
+-- ====================================
+-- Indexes for the predicates of the repository queries.
+-- Built CONCURRENTLY so existing tables stay writable while they build; this
+-- cannot run inside a transaction (see the .conf next to this file).
+-- If a build fails it leaves an INVALID index behind: drop it and re-run.
+-- ====================================
+
+-- History of a product (charts, last 30, analytics joins)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_price_history_product_recorded ON price_history (product_id, recorded_at);
+
+-- Products of a user; duplicate check by URL
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_user ON products (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_url_user ON products (url, user_id);
+
+-- Notification bell: list, unread list and unread count per user
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_read_created ON notifications (user_id, is_read, created_at);
+
+-- Token lookups (e-mail verification, password reset, Telegram linking)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_verification_token ON users (verification_token);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_reset_password_token ON users (reset_password_token);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_telegram_link_code ON users (telegram_link_code);
+
+-- Mercado Livre account of a user / of an ML user id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ml_tokens_user ON ml_tokens (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ml_tokens_user_id_ml ON ml_tokens (user_id_ml);
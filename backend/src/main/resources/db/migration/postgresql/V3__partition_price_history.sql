@@ -0,0 +1,52 @@
+-- ====================================
+-- price_history becomes a table partitioned by month on recorded_at.
+-- Queries bounded by recorded_at only touch the matching partitions, and retention
+-- detaches/drops whole partitions (PriceHistoryPartitionMaintainer) instead of DELETEs.
+-- The primary key must contain the partition key, hence (id, recorded_at).
+-- Existing rows are copied in this migration; expect it to take a while on big tables.
+-- ====================================
+
+ALTER TABLE price_history RENAME TO price_history_legacy;
+ALTER TABLE price_history_legacy RENAME CONSTRAINT price_history_pkey TO price_history_legacy_pkey;
+ALTER INDEX IF EXISTS idx_price_history_product_recorded RENAME TO idx_price_history_legacy_product_recorded;
+
+CREATE TABLE price_history (
+    id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    price DOUBLE PRECISION NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT price_history_pkey PRIMARY KEY (id, recorded_at),
+    CONSTRAINT fk_price_history_product FOREIGN KEY (product_id) REFERENCES products (id)
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX idx_price_history_product_recorded ON price_history (product_id, recorded_at);
+
+-- Creates the partition of the month containing the given day (no-op if it exists).
+-- Also called by the application to keep partitions created ahead of time.
+CREATE OR REPLACE FUNCTION price_history_ensure_partition(day DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', day)::DATE;
+    partition_name TEXT := 'price_history_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF price_history FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions from the oldest row up to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(recorded_at) FROM price_history_legacy), now()))::DATE;
+BEGIN
+    WHILE month_start <= (now() + INTERVAL '3 months')::DATE LOOP
+        PERFORM price_history_ensure_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO price_history (id, product_id, price, recorded_at)
+SELECT id, product_id, price, recorded_at FROM price_history_legacy;
+
+DROP TABLE price_history_legacy;
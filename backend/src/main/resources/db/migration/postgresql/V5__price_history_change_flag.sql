@@ -0,0 +1,19 @@
+-- ====================================
+-- Each price_history row stores the previous row's price and whether it is a real
+-- change, written at insert time. Existing rows are filled once with LAG() over each
+-- product's rows (by id, the order the analytics always used).
+-- ====================================
+
+ALTER TABLE price_history ADD COLUMN previous_price DOUBLE PRECISION;
+ALTER TABLE price_history ADD COLUMN is_change BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE price_history ph
+SET previous_price = prev.previous_price,
+    is_change = prev.previous_price IS NOT NULL AND prev.previous_price <> ph.price
+FROM (
+    SELECT id, recorded_at, LAG(price) OVER (PARTITION BY product_id ORDER BY id) AS previous_price
+    FROM price_history
+) prev
+WHERE prev.id = ph.id
+  AND prev.recorded_at = ph.recorded_at
+  AND prev.previous_price IS NOT NULL;
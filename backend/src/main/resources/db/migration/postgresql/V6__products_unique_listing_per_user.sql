@@ -0,0 +1,25 @@
+-- ====================================
+-- A user monitors each listing at most once: (user_id, listing_key) becomes unique, which
+-- also makes it the conflict target of the single-statement insert used to add products.
+-- Duplicates left by concurrent adds are removed first, keeping the oldest product of each
+-- pair; the younger copy's history and rollup rows describe the same listing and go with it.
+-- ====================================
+
+DELETE FROM price_history ph
+USING products p
+WHERE ph.product_id = p.id
+  AND EXISTS (SELECT 1 FROM products o
+              WHERE o.user_id = p.user_id AND o.listing_key = p.listing_key AND o.id < p.id);
+
+DELETE FROM price_change_daily d
+USING products p
+WHERE d.product_id = p.id
+  AND EXISTS (SELECT 1 FROM products o
+              WHERE o.user_id = p.user_id AND o.listing_key = p.listing_key AND o.id < p.id);
+
+DELETE FROM products p
+WHERE EXISTS (SELECT 1 FROM products o
+              WHERE o.user_id = p.user_id AND o.listing_key = p.listing_key AND o.id < p.id);
+
+DROP INDEX IF EXISTS idx_products_user_listing_key;
+CREATE UNIQUE INDEX uq_products_user_listing_key ON products (user_id, listing_key);
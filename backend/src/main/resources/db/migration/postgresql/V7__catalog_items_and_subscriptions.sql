@@ -0,0 +1,96 @@
+-- ====================================
+-- Listings are stored once: catalog_items holds the scraped state and owns price_history,
+-- and products becomes subscriptions, a user's link to a catalog item with only their URL
+-- and notification preferences. Scrapes and history writes then scale with distinct
+-- listings instead of with the users watching them.
+--
+-- Each listing's catalog item takes the id of its oldest product; the other copies' history
+-- rows describe the same listing and move to it. Product ids stay as subscription ids, so
+-- notifications, price_change_daily and the API keep theirs.
+-- ====================================
+
+-- (user_id, listing_key) uniqueness moves to (user_id, catalog_item_id) below
+DROP INDEX uq_products_user_listing_key;
+
+CREATE SEQUENCE catalog_items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE catalog_items (
+    id BIGINT PRIMARY KEY,
+    listing_key VARCHAR(2048) NOT NULL,
+    url VARCHAR(2048) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    image_url VARCHAR(2048),
+    current_price DOUBLE PRECISION,
+    last_price DOUBLE PRECISION,
+    original_price DOUBLE PRECISION,
+    discount_percent INTEGER,
+    last_checked_at TIMESTAMP(6),
+    last_history_at TIMESTAMP(6),
+    metadata_refreshed_at TIMESTAMP(6),
+    status VARCHAR(255),
+    created_at TIMESTAMP(6)
+);
+
+INSERT INTO catalog_items (id, listing_key, url, name, image_url, current_price, last_price, original_price,
+                           discount_percent, last_checked_at, last_history_at, metadata_refreshed_at, status, created_at)
+SELECT p.id, p.listing_key, p.url, p.name, p.image_url, p.current_price, p.last_price, p.original_price,
+       p.discount_percent, p.last_checked_at, p.last_history_at, p.metadata_refreshed_at, p.status, p.created_at
+FROM products p
+WHERE NOT EXISTS (SELECT 1 FROM products o WHERE o.listing_key = p.listing_key AND o.id < p.id);
+
+CREATE UNIQUE INDEX uq_catalog_items_listing_key ON catalog_items (listing_key);
+
+SELECT setval('catalog_items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM catalog_items));
+
+-- price_history: move the other copies' rows to the listing's catalog item. A change the
+-- surviving copy also recorded within the hour stays as a plain observation, so the
+-- rollup does not count the same change twice.
+UPDATE price_history d SET is_change = FALSE
+FROM products p JOIN catalog_items c ON c.listing_key = p.listing_key
+WHERE p.id = d.product_id AND c.id <> p.id AND d.is_change
+  AND EXISTS (SELECT 1 FROM price_history s
+              WHERE s.product_id = c.id AND s.is_change AND s.price = d.price
+                AND s.recorded_at BETWEEN d.recorded_at - INTERVAL '1 hour' AND d.recorded_at + INTERVAL '1 hour');
+
+UPDATE price_history d SET product_id = c.id
+FROM products p JOIN catalog_items c ON c.listing_key = p.listing_key
+WHERE p.id = d.product_id AND c.id <> p.id;
+
+ALTER TABLE price_history DROP CONSTRAINT fk_price_history_product;
+ALTER TABLE price_history RENAME COLUMN product_id TO catalog_item_id;
+ALTER INDEX IF EXISTS idx_price_history_product_recorded RENAME TO idx_price_history_catalog_item_recorded;
+ALTER TABLE price_history ADD CONSTRAINT fk_price_history_catalog_item
+    FOREIGN KEY (catalog_item_id) REFERENCES catalog_items (id);
+
+-- products → subscriptions
+ALTER TABLE products ADD COLUMN catalog_item_id BIGINT;
+UPDATE products p SET catalog_item_id = c.id FROM catalog_items c WHERE c.listing_key = p.listing_key;
+
+ALTER TABLE products RENAME TO subscriptions;
+ALTER TABLE subscriptions RENAME CONSTRAINT products_pkey TO subscriptions_pkey;
+ALTER SEQUENCE products_seq RENAME TO subscriptions_seq;
+ALTER INDEX IF EXISTS idx_products_user RENAME TO idx_subscriptions_user;
+ALTER INDEX IF EXISTS idx_products_url_user RENAME TO idx_subscriptions_url_user;
+
+ALTER TABLE subscriptions ALTER COLUMN catalog_item_id SET NOT NULL;
+ALTER TABLE subscriptions ADD CONSTRAINT fk_subscriptions_catalog_item
+    FOREIGN KEY (catalog_item_id) REFERENCES catalog_items (id);
+
+-- Drops idx_products_listing_key with the column
+ALTER TABLE subscriptions
+    DROP COLUMN listing_key,
+    DROP COLUMN name,
+    DROP COLUMN image_url,
+    DROP COLUMN current_price,
+    DROP COLUMN last_price,
+    DROP COLUMN original_price,
+    DROP COLUMN discount_percent,
+    DROP COLUMN last_checked_at,
+    DROP COLUMN last_history_at,
+    DROP COLUMN metadata_refreshed_at,
+    DROP COLUMN status;
+
+-- A user subscribes to each listing once (conflict target of the add-product insert);
+-- the catalog item index serves the notification fan-out to an item's subscribers
+CREATE UNIQUE INDEX uq_subscriptions_user_catalog_item ON subscriptions (user_id, catalog_item_id);
+CREATE INDEX idx_subscriptions_catalog_item ON subscriptions (catalog_item_id);
@@ -0,0 +1,115 @@
+package com.mercadolivre.pricemonitor.benchmark;
+
+import com.mercadolivre.pricemonitor.service.ListingKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * URL canonicalization as done per product in every update cycle: the previous
+ * split/indexOf/regex helpers against the single-pass {@link ListingKeys}.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mercadolivre.pricemonitor.benchmark.ListingKeysBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingKeysBenchmark {
+
+    private final String[] urls = {
+            "https://produto.mercadolivre.com.br/MLB-3456789012-smartphone-samsung-galaxy-a54-5g-128gb-_JM"
+                    + "#position=3&search_layout=grid&type=item&tracking_id=5c1b2f9e-0a4b-4d3c-9a7e-2f8e1d6c4b3a",
+            "https://www.mercadolivre.com.br/samsung-galaxy-a54-5g-128gb/p/MLB19615318"
+                    + "?pdp_filters=item_id:MLB3456789012#reco_item_pos=0&reco_backend=univb",
+            "https://www.amazon.com.br/dp/B0C1234567?ref=ppx_yo2ov_dt_b_product_details&th=1",
+    };
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (String url : urls) {
+            blackhole.consume(legacyNormalizeUrl(url));
+            String clean = legacyCleanUrl(url);
+            blackhole.consume(clean);
+            blackhole.consume(legacyExtractItemId(clean));
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String url : urls) {
+            blackhole.consume(ListingKeys.of(url));
+            String clean = ListingKeys.canonicalUrl(url);
+            blackhole.consume(clean);
+            blackhole.consume(ListingKeys.itemId(clean));
+        }
+    }
+
+    /** Former ProductService.normalizeUrl. */
+    private static String legacyNormalizeUrl(String url) {
+        if (url.contains("#")) {
+            url = url.split("#")[0];
+        }
+        if (url.contains("?")) {
+            url = url.split("\\?")[0];
+        }
+        return url.trim();
+    }
+
+    /** Former ScraperService.cleanMercadoLivreUrl. */
+    private static String legacyCleanUrl(String url) {
+        int firstHttps = url.indexOf("https://");
+        int secondHttps = url.indexOf("https://", firstHttps + 1);
+        if (secondHttps > 0) {
+            url = url.substring(0, secondHttps);
+        }
+        int hashIndex = url.indexOf('#');
+        if (hashIndex > 0) {
+            url = url.substring(0, hashIndex);
+        }
+        int queryIndex = url.indexOf('?');
+        if (queryIndex > 0) {
+            url = url.substring(0, queryIndex);
+        }
+        return url.trim();
+    }
+
+    /** Former MercadoLivreService.extractItemId. */
+    private static String legacyExtractItemId(String url) {
+        Matcher matcher1 = Pattern.compile("/p/(ML[A-Z]\\d+)").matcher(url);
+        if (matcher1.find()) {
+            return matcher1.group(1);
+        }
+        Matcher matcher2 = Pattern.compile("(ML[A-Z])-?(\\d+)").matcher(url);
+        if (matcher2.find()) {
+            return matcher2.group(1) + matcher2.group(2);
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListingKeysBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.mercadolivre.pricemonitor.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mercadolivre.pricemonitor.dto.MlItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a full ML item payload: the old {@code Map<String, Object>} path
+ * (what RestTemplate did with {@code Map.class}) against the streaming {@link MlItem} reader.
+ *
+ * Run with the GC profiler to compare allocation per parse (gc.alloc.rate.norm):
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mercadolivre.pricemonitor.benchmark.MlItemParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MlItemParsingBenchmark {
+
+    private byte[] payload;
+    private ObjectReader mapReader;
+    private ObjectReader itemReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream json = MlItemParsingBenchmark.class.getResourceAsStream("/ml/item.json")) {
+            payload = json.readAllBytes();
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        mapReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+        itemReader = objectMapper.readerFor(MlItem.class);
+    }
+
+    /**
+     * Old path: whole item as nested maps, then the six fields read out of it.
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object mapPath() throws IOException {
+        Map<String, Object> item = mapReader.readValue(payload);
+        Object title = item.get("title");
+        Object price = item.get("price");
+        Object originalPrice = item.get("original_price");
+        Object thumbnail = item.get("thumbnail");
+        List<Map<String, Object>> pictures = (List<Map<String, Object>>) item.get("pictures");
+        Object picture = pictures != null && !pictures.isEmpty() ? pictures.get(0).get("url") : null;
+        return new Object[]{title, price, originalPrice, thumbnail, picture};
+    }
+
+    @Benchmark
+    public MlItem streamingPath() throws IOException {
+        return itemReader.readValue(payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MlItemParsingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
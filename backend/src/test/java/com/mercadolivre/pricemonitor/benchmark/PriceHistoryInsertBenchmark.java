@@ -0,0 +1,119 @@
+package com.mercadolivre.pricemonitor.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Inserts per second into a price_history-shaped table on PostgreSQL, before and after
+ * the move from IDENTITY ids to pooled sequences with JDBC batching.
+ *
+ * <ul>
+ *   <li><b>identity</b>: what Hibernate does with IDENTITY: one INSERT ... RETURNING per row,
+ *       one transaction per product.</li>
+ *   <li><b>sequence</b>: one nextval per 50 ids, rows sent with executeBatch and committed
+ *       in transactions of 50 products (the update cycle's write chunks).</li>
+ * </ul>
+ *
+ * This measures database round trips rather than CPU, so it is a plain main instead of JMH.
+ * Uses temporary tables only:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mercadolivre.pricemonitor.benchmark.PriceHistoryInsertBenchmark \
+ *     -Dbench.url=jdbc:postgresql://localhost:5432/price_monitor?reWriteBatchedInserts=true \
+ *     -Dbench.user=postgres -Dbench.password=postgres -Dbench.rows=20000
+ * </pre>
+ */
+public class PriceHistoryInsertBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true");
+        String user = System.getProperty("bench.user", "postgres");
+        String password = System.getProperty("bench.password", "");
+        int rows = Integer.getInteger("bench.rows", 20_000);
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE bench_identity (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "product_id BIGINT NOT NULL, price DOUBLE PRECISION NOT NULL, recorded_at TIMESTAMP NOT NULL)");
+                statement.execute("CREATE TEMP TABLE bench_sequence (id BIGINT PRIMARY KEY, "
+                        + "product_id BIGINT NOT NULL, price DOUBLE PRECISION NOT NULL, recorded_at TIMESTAMP NOT NULL)");
+                statement.execute("CREATE TEMP SEQUENCE bench_sequence_seq INCREMENT BY " + BATCH_SIZE);
+            }
+
+            // Warm up connection and plans on both paths
+            identity(connection, 1_000);
+            sequence(connection, 1_000);
+
+            report("identity (before)", rows, identity(connection, rows));
+            report("sequence + batch (after)", rows, sequence(connection, rows));
+        }
+    }
+
+    private static long identity(Connection connection, int rows) throws SQLException {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_identity (product_id, price, recorded_at) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+                connection.commit();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long sequence(Connection connection, int rows) throws SQLException {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement nextVal = connection.prepareStatement("SELECT nextval('bench_sequence_seq')");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO bench_sequence (id, product_id, price, recorded_at) VALUES (?, ?, ?, ?)")) {
+            long nextId = 0;
+            long maxId = -1;
+            for (int i = 0; i < rows; i++) {
+                if (nextId > maxId) {
+                    // Pooled optimizer: one round trip reserves BATCH_SIZE ids
+                    try (ResultSet rs = nextVal.executeQuery()) {
+                        rs.next();
+                        maxId = rs.getLong(1);
+                        nextId = maxId - BATCH_SIZE + 1;
+                    }
+                }
+                insert.setLong(1, nextId++);
+                insert.setLong(2, i % 500);
+                insert.setDouble(3, 100 + (i % 97));
+                insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void bind(PreparedStatement insert, int i) throws SQLException {
+        insert.setLong(1, i % 500);
+        insert.setDouble(2, 100 + (i % 97));
+        insert.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static void report(String label, int rows, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.printf("%-26s %8d rows in %7.2fs  -> %10.0f inserts/s%n", label, rows, seconds, rows / seconds);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mercadolivre.pricemonitor.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DisplayName("ReadWriteRoutingDataSource Tests")
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = h2("primary");
+    private final DataSource replica = h2("replica");
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Transação read-only deve usar a réplica; as demais o primário")
+    void deveRotearPorReadOnly() throws SQLException {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, monitor(replica, "SELECT 0"));
+
+        assertEquals("primary", database(routing));
+        inTransaction(false);
+        assertEquals("primary", database(routing));
+        inTransaction(true);
+        assertEquals("replica", database(routing));
+    }
+
+    @Test
+    @DisplayName("Réplica atrasada além do limite deve ser ignorada")
+    void deveIgnorarReplicaAtrasada() throws SQLException {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, monitor(replica, "SELECT 60"));
+
+        inTransaction(true);
+
+        assertEquals("primary", database(routing));
+    }
+
+    @Test
+    @DisplayName("Falha ao conectar na réplica deve cair para o primário")
+    void deveCairParaPrimarioQuandoReplicaFalha() throws SQLException {
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:mem:broken;IFEXISTS=TRUE", "sa", "");
+        ReplicaLagMonitor monitor = monitor(replica, "SELECT 0");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, broken, monitor);
+
+        inTransaction(true);
+
+        assertEquals("primary", database(routing));
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    private static ReplicaLagMonitor monitor(DataSource replica, String lagQuery) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, lagQuery, 5, new SimpleMeterRegistry());
+        monitor.check();
+        return monitor;
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static String database(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog().toLowerCase();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
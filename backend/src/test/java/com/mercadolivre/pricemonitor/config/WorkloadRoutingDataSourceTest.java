@@ -0,0 +1,78 @@
+package com.mercadolivre.pricemonitor.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("WorkloadRoutingDataSource Tests")
+class WorkloadRoutingDataSourceTest {
+
+    private final WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(Map.of(
+            Workload.INTERACTIVE, h2("interactive"),
+            Workload.BATCH, h2("batch"),
+            Workload.MAINTENANCE, h2("maintenance")));
+
+    @Test
+    @DisplayName("Threads sem marcação devem usar o pool batch; requisições o interactive")
+    void deveRotearPelaWorkloadDaThread() throws Exception {
+        assertEquals("batch", database(routing));
+
+        Workload previous = Workload.enter(Workload.INTERACTIVE);
+        try {
+            assertEquals("interactive", database(routing));
+        } finally {
+            Workload.restore(previous);
+        }
+        assertEquals("batch", database(routing));
+    }
+
+    @Test
+    @DisplayName("@DatabaseWorkload deve valer durante o método anotado")
+    @SuppressWarnings("unchecked")
+    void deveAplicarAnotacao() throws Exception {
+        ProxyFactory factory = new ProxyFactory(new MaintenanceJob(routing));
+        factory.addAdvisor(DataSourceConfig.databaseWorkloadAdvisor());
+        Callable<String> job = (Callable<String>) factory.getProxy();
+
+        Workload previous = Workload.enter(Workload.INTERACTIVE);
+        try {
+            assertEquals("maintenance", job.call());
+            assertEquals("interactive", database(routing));
+        } finally {
+            Workload.restore(previous);
+        }
+    }
+
+    static class MaintenanceJob implements Callable<String> {
+        private final DataSource dataSource;
+
+        MaintenanceJob(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        @DatabaseWorkload(Workload.MAINTENANCE)
+        public String call() throws SQLException {
+            return database(dataSource);
+        }
+    }
+
+    private static String database(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog().toLowerCase();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
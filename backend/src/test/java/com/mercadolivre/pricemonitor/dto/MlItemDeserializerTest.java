@@ -0,0 +1,55 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MlItemDeserializer Tests")
+class MlItemDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve extrair apenas os campos usados de um item completo")
+    void deveExtrairCamposDeItemCompleto() throws Exception {
+        try (InputStream json = getClass().getResourceAsStream("/ml/item.json")) {
+            MlItem item = objectMapper.readValue(json, MlItem.class);
+
+            assertEquals("MLB3456789012", item.getId());
+            assertEquals("Smartphone Samsung Galaxy A54 5G 128GB 8GB RAM Preto", item.getTitle());
+            assertEquals(1299.0, item.getPrice());
+            assertEquals(1599.0, item.getOriginalPrice());
+            assertEquals("http://http2.mlstatic.com/D_1-MLB777777701_0124-I.jpg", item.getThumbnail());
+            assertEquals(1, item.getPictures().size());
+            assertEquals("http://http2.mlstatic.com/D_1-MLB777777701_0124-O.jpg", item.getPictures().get(0).getUrl());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ler itens de um multi-get incluindo entradas de erro e resposta só de preço")
+    void deveLerMultiGet() throws Exception {
+        String json = """
+                [
+                  {"code": 200, "body": {"id": "MLB1", "price": 10, "original_price": null}},
+                  {"code": 404, "body": {"id": "MLB2", "message": "Item not found", "cause": []}},
+                  {"code": 200, "body": {"id": "MLB3", "title": "X", "price": "19.90", "pictures": []}}
+                ]
+                """;
+
+        List<MlMultiGetEntry> entries = List.of(objectMapper.readValue(json, MlMultiGetEntry[].class));
+
+        assertEquals(3, entries.size());
+        assertEquals(10.0, entries.get(0).getBody().getPrice());
+        assertNull(entries.get(0).getBody().getOriginalPrice());
+        assertNull(entries.get(0).getBody().getTitle());
+        assertEquals(404, entries.get(1).getCode());
+        assertEquals("MLB2", entries.get(1).getBody().getId());
+        assertEquals(19.90, entries.get(2).getBody().getPrice());
+        assertNull(entries.get(2).getBody().getPictures());
+    }
+}
@@ -0,0 +1,297 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails the build when a repository query filters on nothing that an index leads with.
+ *
+ * Indexes are read from the PostgreSQL migrations (primary keys, UNIQUE columns and
+ * CREATE INDEX, following table and column renames); a query is backed when at least one of its predicate columns is the
+ * first column of an index on that table. Derived queries are parsed with Spring Data's
+ * PartTree, @Query methods by their {@code alias.property <op>} predicates.
+ * Queries without a WHERE clause are full reads on purpose and are not checked.
+ */
+@DisplayName("Cobertura de índices das queries dos repositórios")
+class RepositoryIndexCoverageTest {
+
+    private static final Path MIGRATIONS = Path.of("src/main/resources/db/migration");
+
+    /** Queries that cannot use an index, with the reason. */
+    private static final Map<String, String> ALLOWED_SCANS = Map.of(
+            "ProductRepository.findProductsWithPriceDrop", "compares two columns of the same row",
+            "PriceChangeDailyRepository.deleteFrom", "nightly reconcile of the last days",
+            "PriceHistoryRepository.countChangesByCatalogItemDateAndHour",
+            "nightly reconcile; PostgreSQL prunes it to the recent monthly partitions");
+
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "(?i)CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)");
+    private static final Pattern INLINE_KEY = Pattern.compile(
+            "(?i)^\\s*(\\w+)\\s+[^,]*\\b(?:PRIMARY\\s+KEY|UNIQUE)\\b(?!\\s*\\()");
+    private static final Pattern TABLE_KEY = Pattern.compile(
+            "(?i)\\b(?:PRIMARY\\s+KEY|UNIQUE)\\s*\\(\\s*(\\w+)");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "(?i)CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:CONCURRENTLY\\s+)?(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)"
+                    + "\\s+ON\\s+(?:ONLY\\s+)?(\\w+)\\s*(?:USING\\s+\\w+\\s*)?\\(\\s*(\\w+)");
+    private static final Pattern RENAME_TABLE = Pattern.compile(
+            "(?i)ALTER\\s+TABLE\\s+(?:IF\\s+EXISTS\\s+)?(\\w+)\\s+RENAME\\s+TO\\s+(\\w+)");
+    private static final Pattern RENAME_COLUMN = Pattern.compile(
+            "(?i)ALTER\\s+TABLE\\s+(?:IF\\s+EXISTS\\s+)?(\\w+)\\s+RENAME\\s+COLUMN\\s+(\\w+)\\s+TO\\s+(\\w+)");
+    private static final Pattern ALIAS = Pattern.compile(
+            "(?i)\\b(?:FROM|JOIN|UPDATE)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?");
+    private static final Pattern PREDICATE = Pattern.compile(
+            "(?i)\\b(\\w+)\\.(\\w+)(?:\\.\\w+)?\\s*(?:=|<>|!=|<=|>=|<|>|\\bIN\\b|\\bIS\\b|\\bLIKE\\b|\\bBETWEEN\\b)");
+    private static final Set<String> KEYWORDS = Set.of(
+            "where", "set", "on", "join", "inner", "left", "right", "order", "group", "limit", "as");
+
+    @Test
+    @DisplayName("Toda query com filtro deve ter um índice que comece por uma das colunas filtradas")
+    void todaQueryComFiltroDeveTerIndice() throws IOException {
+        Map<String, Set<String>> leadingColumns = leadingColumns(MIGRATIONS.resolve("postgresql"));
+        Map<String, Class<?>> entitiesByName = new HashMap<>();
+        List<Class<?>> repositories = repositoryInterfaces();
+        for (Class<?> repository : repositories) {
+            Class<?> entity = new DefaultRepositoryMetadata(repository).getDomainType();
+            entitiesByName.put(entity.getSimpleName(), entity);
+        }
+
+        List<String> unbacked = new ArrayList<>();
+        for (Class<?> repository : repositories) {
+            Class<?> entity = new DefaultRepositoryMetadata(repository).getDomainType();
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isDefault() || method.isSynthetic()) {
+                    continue;
+                }
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (ALLOWED_SCANS.containsKey(name)) {
+                    continue;
+                }
+                Map<String, Set<String>> predicates = method.isAnnotationPresent(Query.class)
+                        ? queryPredicates(method.getAnnotation(Query.class), entitiesByName)
+                        : derivedPredicates(method, entity);
+                if (predicates.isEmpty()) {
+                    continue;
+                }
+                boolean backed = predicates.entrySet().stream().anyMatch(entry ->
+                        entry.getValue().stream().anyMatch(column ->
+                                leadingColumns.getOrDefault(entry.getKey(), Set.of()).contains(column)));
+                if (!backed) {
+                    unbacked.add(name + " " + predicates);
+                }
+            }
+        }
+
+        assertTrue(unbacked.isEmpty(), "Queries sem índice (adicione uma migration com o índice "
+                + "ou justifique em ALLOWED_SCANS): " + unbacked);
+    }
+
+    @Test
+    @DisplayName("Migrations de MySQL e PostgreSQL devem criar os mesmos índices")
+    void migrationsDevemCriarOsMesmosIndices() throws IOException {
+        assertEquals(indexNames(MIGRATIONS.resolve("postgresql")), indexNames(MIGRATIONS.resolve("mysql")));
+    }
+
+    private static List<Class<?>> repositoryInterfaces() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        List<Class<?>> result = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(RepositoryIndexCoverageTest.class.getPackageName())) {
+            try {
+                result.add(Class.forName(candidate.getBeanClassName()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return result;
+    }
+
+    /** Table → columns that some index (or key) starts with. */
+    private static Map<String, Set<String>> leadingColumns(Path dir) throws IOException {
+        Map<String, Set<String>> result = new HashMap<>();
+        for (String sql : migrationScripts(dir)) {
+            String table = null;
+            for (String line : sql.split("\n")) {
+                String code = line.replaceAll("--.*", "");
+                Matcher createTable = CREATE_TABLE.matcher(code);
+                if (createTable.find()) {
+                    table = lower(createTable.group(1));
+                    continue;
+                }
+                if (table == null) {
+                    Matcher index = CREATE_INDEX.matcher(code);
+                    if (index.find()) {
+                        result.computeIfAbsent(lower(index.group(2)), t -> new HashSet<>()).add(lower(index.group(3)));
+                    }
+                    Matcher renameTable = RENAME_TABLE.matcher(code);
+                    if (renameTable.find()) {
+                        Set<String> columns = result.remove(lower(renameTable.group(1)));
+                        if (columns != null) {
+                            result.put(lower(renameTable.group(2)), columns);
+                        }
+                    }
+                    Matcher renameColumn = RENAME_COLUMN.matcher(code);
+                    if (renameColumn.find()) {
+                        Set<String> columns = result.get(lower(renameColumn.group(1)));
+                        if (columns != null && columns.remove(lower(renameColumn.group(2)))) {
+                            columns.add(lower(renameColumn.group(3)));
+                        }
+                    }
+                    continue;
+                }
+                if (code.trim().startsWith(")")) {
+                    table = null;
+                    continue;
+                }
+                Matcher tableKey = TABLE_KEY.matcher(code);
+                if (tableKey.find()) {
+                    result.computeIfAbsent(table, t -> new HashSet<>()).add(lower(tableKey.group(1)));
+                }
+                Matcher inline = INLINE_KEY.matcher(code);
+                if (inline.find() && !inline.group(1).equalsIgnoreCase("CONSTRAINT")) {
+                    result.computeIfAbsent(table, t -> new HashSet<>()).add(lower(inline.group(1)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> indexNames(Path dir) throws IOException {
+        Set<String> names = new TreeSet<>();
+        for (String sql : migrationScripts(dir)) {
+            Matcher index = CREATE_INDEX.matcher(sql);
+            while (index.find()) {
+                names.add(lower(index.group(1)));
+            }
+        }
+        return names;
+    }
+
+    private static List<String> migrationScripts(Path dir) throws IOException {
+        List<String> scripts = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".sql"))
+                    .sorted(Comparator.comparing(RepositoryIndexCoverageTest::version)).toList()) {
+                scripts.add(Files.readString(file));
+            }
+        }
+        return scripts;
+    }
+
+    /** Flyway version of a migration file (V1_1__x.sql → 1.1), the order they are applied in. */
+    private static MigrationVersion version(Path file) {
+        String name = file.getFileName().toString();
+        return MigrationVersion.fromVersion(name.substring(1, name.indexOf("__")).replace('_', '.'));
+    }
+
+    /** Table → predicate columns of a derived query (findByXAndY...). */
+    private static Map<String, Set<String>> derivedPredicates(Method method, Class<?> entity) {
+        Set<String> columns = new HashSet<>();
+        for (Part part : new PartTree(method.getName(), entity).getParts()) {
+            columns.add(column(entity, part.getProperty().getSegment()));
+        }
+        return columns.isEmpty() ? Map.of() : Map.of(table(entity), columns);
+    }
+
+    /** Table → predicate columns of a JPQL or native query, read after its first WHERE. */
+    private static Map<String, Set<String>> queryPredicates(Query query, Map<String, Class<?>> entitiesByName) {
+        String text = query.value();
+        int where = text.toUpperCase(Locale.ROOT).indexOf(" WHERE ");
+        if (where < 0) {
+            return Map.of();
+        }
+        Map<String, String> sourceByAlias = new HashMap<>();
+        Matcher alias = ALIAS.matcher(text);
+        while (alias.find()) {
+            if (alias.group(2) != null && !KEYWORDS.contains(lower(alias.group(2)))) {
+                sourceByAlias.put(alias.group(2), alias.group(1));
+            }
+        }
+        Map<String, Set<String>> result = new HashMap<>();
+        Matcher predicate = PREDICATE.matcher(text.substring(where));
+        while (predicate.find()) {
+            String source = sourceByAlias.get(predicate.group(1));
+            if (source == null) {
+                continue;
+            }
+            Class<?> entity = query.nativeQuery() ? null : entitiesByName.get(source);
+            if (entity != null) {
+                result.computeIfAbsent(table(entity), t -> new HashSet<>()).add(column(entity, predicate.group(2)));
+            } else {
+                result.computeIfAbsent(lower(source), t -> new HashSet<>()).add(lower(predicate.group(2)));
+            }
+        }
+        return result;
+    }
+
+    private static String table(Class<?> entity) {
+        Table table = entity.getAnnotation(Table.class);
+        return table != null && !table.name().isEmpty() ? lower(table.name()) : snake(entity.getSimpleName());
+    }
+
+    private static String column(Class<?> entity, String property) {
+        for (Class<?> type = entity; type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(property);
+                JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+                if (joinColumn != null && !joinColumn.name().isEmpty()) {
+                    return lower(joinColumn.name());
+                }
+                Column column = field.getAnnotation(Column.class);
+                if (column != null && !column.name().isEmpty()) {
+                    return lower(column.name());
+                }
+                return snake(property);
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            }
+        }
+        return snake(property);
+    }
+
+    private static String snake(String name) {
+        return lower(name.replaceAll("([a-z0-9])([A-Z])", "$1_$2"));
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,107 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.config.SecondLevelCacheConfig;
+import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import com.mercadolivre.pricemonitor.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Each repository call runs in its own transaction (no test transaction), so repeated
+ * lookups only avoid the database through the second-level cache.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Cache de 2º nível de User e MercadoLivreToken")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MercadoLivreTokenRepository tokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository.deleteAll();
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Buscas repetidas de usuário por id devem consultar o banco uma única vez")
+    void buscasRepetidasDeUsuarioUsamCache() {
+        Long userId = userRepository.save(newUser("cache@test.com")).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            userRepository.findById(userId).orElseThrow();
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(4, statistics.getCacheRegionStatistics(SecondLevelCacheConfig.USERS_REGION).getHitCount());
+    }
+
+    @Test
+    @DisplayName("Atualizar o usuário deve invalidar a cópia em cache")
+    void atualizacaoInvalidaCache() {
+        User user = userRepository.save(newUser("update@test.com"));
+        userRepository.findById(user.getId()).orElseThrow();
+
+        user.setFullName("Nome Novo");
+        userRepository.save(user);
+
+        assertEquals("Nome Novo", userRepository.findById(user.getId()).orElseThrow().getFullName());
+    }
+
+    @Test
+    @DisplayName("Buscas repetidas de token por usuário devem consultar o banco uma única vez")
+    void buscasRepetidasDeTokenUsamCache() {
+        User user = userRepository.save(newUser("token@test.com"));
+        MercadoLivreToken token = new MercadoLivreToken();
+        token.setAccessToken("access");
+        token.setExpiresAt(LocalDateTime.now().plusHours(6));
+        token.setUser(user);
+        tokenRepository.save(token);
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("access", tokenRepository.findByUser(user).orElseThrow().getAccessToken());
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setFullName("Usuário Teste");
+        return user;
+    }
+}
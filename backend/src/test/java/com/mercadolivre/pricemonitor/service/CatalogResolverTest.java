@@ -0,0 +1,82 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.CatalogResolution;
+import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import com.mercadolivre.pricemonitor.repository.CatalogResolutionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogResolver Tests")
+class CatalogResolverTest {
+
+    @Mock
+    private CatalogResolutionRepository repository;
+
+    @Mock
+    private MercadoLivreApiClient apiClient;
+
+    @Mock
+    private MercadoLivreTokenPool tokenPool;
+
+    private CatalogResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new CatalogResolver(repository, apiClient, tokenPool, 6);
+    }
+
+    @Test
+    @DisplayName("Deve resolver pela API uma vez e depois usar o cache em memória")
+    void deveResolverPelaApiEUsarCache() {
+        MercadoLivreToken token = new MercadoLivreToken();
+        token.setAccessToken("token");
+        when(tokenPool.acquire()).thenReturn(new MercadoLivreTokenPool.PooledToken(token));
+        when(repository.findById("MLB19615318")).thenReturn(Optional.empty());
+        when(apiClient.getCatalogBuyBoxItemId("MLB19615318", "token")).thenReturn(Mono.just("MLB3456789012"));
+
+        assertEquals("MLB3456789012", resolver.resolve("MLB19615318").block(Duration.ofSeconds(5)));
+        assertEquals("MLB3456789012", resolver.resolve("MLB19615318").block(Duration.ofSeconds(5)));
+
+        verify(apiClient, times(1)).getCatalogBuyBoxItemId(anyString(), anyString());
+        verify(repository).save(any(CatalogResolution.class));
+    }
+
+    @Test
+    @DisplayName("Deve usar a resolução salva no banco enquanto estiver dentro do TTL")
+    void deveUsarResolucaoSalvaDentroDoTtl() {
+        when(repository.findById("MLB19615318")).thenReturn(Optional.of(
+                new CatalogResolution("MLB19615318", "MLB111", LocalDateTime.now().minusHours(1))));
+
+        assertEquals("MLB111", resolver.resolve("MLB19615318").block(Duration.ofSeconds(5)));
+
+        verifyNoInteractions(apiClient);
+    }
+
+    @Test
+    @DisplayName("Deve resolver novamente quando a resolução salva expirou")
+    void deveResolverNovamenteQuandoExpirada() {
+        MercadoLivreToken token = new MercadoLivreToken();
+        token.setAccessToken("token");
+        when(tokenPool.acquire()).thenReturn(new MercadoLivreTokenPool.PooledToken(token));
+        when(repository.findById("MLB19615318")).thenReturn(Optional.of(
+                new CatalogResolution("MLB19615318", "MLB111", LocalDateTime.now().minusHours(7))));
+        when(apiClient.getCatalogBuyBoxItemId("MLB19615318", "token")).thenReturn(Mono.just("MLB222"));
+
+        assertEquals("MLB222", resolver.resolve("MLB19615318").block(Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.mercadolivre.pricemonitor.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ListingKeys Tests")
+class ListingKeysTest {
+
+    @Test
+    @DisplayName("Deve gerar a mesma chave para variações da URL de um anúncio")
+    void deveGerarMesmaChaveParaVariacoes() {
+        String key = ListingKeys.of("https://produto.mercadolivre.com.br/MLB-3456789012-smartphone-samsung-_JM");
+
+        assertEquals("MLB3456789012", key);
+        assertEquals(key, ListingKeys.of(
+                "https://produto.mercadolivre.com.br/MLB-3456789012-smartphone-samsung-_JM?searchVariation=1#position=3"));
+        assertEquals(key, ListingKeys.of("https://www.mercadolivre.com.br/smartphone/up/MLB3456789012"));
+    }
+
+    @Test
+    @DisplayName("Deve distinguir links de catálogo")
+    void deveDistinguirCatalogo() {
+        String url = "https://www.mercadolivre.com.br/samsung-galaxy-a54/p/MLB19615318?pdp_filters=item_id:MLB3456789012";
+
+        assertEquals("p/MLB19615318", ListingKeys.of(url));
+        assertEquals("MLB19615318", ListingKeys.catalogId(url));
+        assertEquals("MLB19615318", ListingKeys.itemId(url));
+        assertTrue(ListingKeys.isCatalogKey(ListingKeys.of(url)));
+    }
+
+    @Test
+    @DisplayName("Deve limpar URLs de outros sites e URLs coladas duas vezes")
+    void deveLimparUrls() {
+        assertEquals("https://www.amazon.com.br/dp/B0C1234567",
+                ListingKeys.of("  https://www.amazon.com.br/dp/B0C1234567?ref=abc#reviews "));
+        assertEquals("https://www.kabum.com.br/produto/123",
+                ListingKeys.canonicalUrl("https://www.kabum.com.br/produto/123https://www.kabum.com.br/produto/123"));
+        assertNull(ListingKeys.itemId("https://www.kabum.com.br/produto/123"));
+        assertNull(ListingKeys.of(null));
+    }
+}
@@ -0,0 +1,119 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.MlMultiGetEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MercadoLivreApiClient Tests")
+class MercadoLivreApiClientTest {
+
+    private static final String ITEM_1 = "{\"id\":\"MLB1\",\"title\":\"Produto\",\"price\":99.9}";
+    private static final String ITEM_2 = "{\"id\":\"MLB2\",\"title\":\"Outro\",\"price\":10.0}";
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** ETag currently served by the fake ML API; a matching If-None-Match gets a 304. */
+    private String currentEtag = "\"v1\"";
+    private String body = multiGet(ITEM_1, ITEM_2);
+
+    private MercadoLivreApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("https://api.mercadolibre.com")
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    if (currentEtag.equals(request.headers().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                        return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header(HttpHeaders.ETAG, currentEtag)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        client = new MercadoLivreApiClient(webClient, 5000, 100, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Multi-get deve revalidar com If-None-Match e remontar os itens do cache no 304")
+    void multiGetReusaItensEmCacheNo304() {
+        List<MlMultiGetEntry> first = getItems("MLB1", "MLB2");
+        List<MlMultiGetEntry> second = getItems("MLB1", "MLB2");
+
+        assertNull(requests.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("\"v1\"", requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(99.9, first.get(0).getBody().getPrice());
+        assertSame(first.get(0).getBody(), second.get(0).getBody());
+        assertSame(first.get(1).getBody(), second.get(1).getBody());
+        assertEquals(200, second.get(1).getCode());
+        assertEquals(0.5, client.notModifiedRatio());
+        assertEquals(0.5, meterRegistry.get("mercadolivre.conditional.not_modified.ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve baixar de novo quando um item mudou e guardar o novo validador")
+    void deveAtualizarQuandoItemMudou() {
+        getItems("MLB1", "MLB2");
+        currentEtag = "\"v2\"";
+        body = multiGet("{\"id\":\"MLB1\",\"title\":\"Produto\",\"price\":89.9}", ITEM_2);
+
+        List<MlMultiGetEntry> changed = getItems("MLB1", "MLB2");
+        List<MlMultiGetEntry> cached = getItems("MLB1", "MLB2");
+
+        assertEquals(89.9, changed.get(0).getBody().getPrice());
+        assertSame(changed.get(0).getBody(), cached.get(0).getBody());
+        assertEquals("\"v2\"", requests.get(2).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(1.0 / 3, client.notModifiedRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Lote com id sem cache ou com erro não deve ser condicional")
+    void loteComIdNovoOuComErroNaoECondicional() {
+        getItems("MLB1", "MLB2");
+        body = multiGet(ITEM_1, ITEM_2, "{\"message\":\"not found\"}");
+
+        getItems("MLB1", "MLB2", "MLB3");
+        getItems("MLB1", "MLB2", "MLB3");
+
+        assertNull(requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        // MLB3 voltou com erro e ficou fora do cache
+        assertNull(requests.get(2).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(0.0, client.notModifiedRatio());
+    }
+
+    private List<MlMultiGetEntry> getItems(String... ids) {
+        return client.getItems(List.of(ids), "token", MercadoLivreApiClient.PRICE_ATTRIBUTES)
+                .block(Duration.ofSeconds(5));
+    }
+
+    private static String multiGet(String... items) {
+        StringBuilder json = new StringBuilder("[");
+        for (String item : items) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(item.contains("message") ? "{\"code\":404,\"body\":" : "{\"code\":200,\"body\":")
+                    .append(item).append('}');
+        }
+        return json.append(']').toString();
+    }
+}
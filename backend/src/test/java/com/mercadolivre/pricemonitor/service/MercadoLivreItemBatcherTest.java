@@ -0,0 +1,162 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.MlItem;
+import com.mercadolivre.pricemonitor.dto.MlMultiGetEntry;
+import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MercadoLivreItemBatcher Tests")
+class MercadoLivreItemBatcherTest {
+
+    @Mock
+    private MercadoLivreApiClient apiClient;
+
+    @Mock
+    private MercadoLivreTokenPool tokenPool;
+
+    @BeforeEach
+    void setUp() {
+        MercadoLivreToken token = new MercadoLivreToken();
+        token.setAccessToken("token");
+        when(tokenPool.acquire()).thenReturn(new MercadoLivreTokenPool.PooledToken(token));
+    }
+
+    @Test
+    @DisplayName("Deve agrupar ids em um único multi-get e separar falhas por id")
+    void deveAgruparIdsEmMultiGet() throws Exception {
+        when(apiClient.getItems(any(), eq("token"), any())).thenReturn(Mono.just(List.of(
+                new MlMultiGetEntry(200, item("MLB1", 10.0)),
+                new MlMultiGetEntry(404, item("MLB2", null)))));
+        MercadoLivreItemBatcher batcher = new MercadoLivreItemBatcher(apiClient, tokenPool, 60_000, 60_000, 20, 3, Schedulers.single());
+
+        CompletableFuture<MlItem> first = batcher.getItem("MLB1", false).toFuture();
+        CompletableFuture<MlItem> second = batcher.getItem("MLB2", false).toFuture();
+        CompletableFuture<MlItem> third = batcher.getItem("MLB3", false).toFuture();
+
+        assertEquals(10.0, first.get().getPrice());
+        ExecutionException notFound = assertThrows(ExecutionException.class, second::get);
+        assertEquals(404, ((MercadoLivreItemException) notFound.getCause()).getStatus());
+        assertThrows(ExecutionException.class, third::get); // ausente da resposta
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> ids = ArgumentCaptor.forClass(List.class);
+        verify(apiClient, times(1)).getItems(ids.capture(), eq("token"), any());
+        assertEquals(List.of("MLB1", "MLB2", "MLB3"), List.copyOf(ids.getValue()));
+    }
+
+    @Test
+    @DisplayName("Deve enviar lote incompleto quando a janela expira")
+    void deveEnviarLoteQuandoJanelaExpira() throws Exception {
+        when(apiClient.getItems(any(), eq("token"), any())).thenReturn(Mono.just(List.of(
+                new MlMultiGetEntry(200, item("MLB1", 10.0)))));
+        MercadoLivreItemBatcher batcher = new MercadoLivreItemBatcher(apiClient, tokenPool, 5, 5, 20, 5000, Schedulers.parallel());
+
+        MlItem result = batcher.getItem("MLB1", false).block(Duration.ofSeconds(5));
+
+        assertNotNull(result);
+        assertEquals("MLB1", result.getId());
+    }
+
+    @Test
+    @DisplayName("Deve montar os multi-gets com ids ordenados em blocos fixos, independente da ordem de chegada")
+    void deveMontarBlocosOrdenados() {
+        when(apiClient.getItems(any(), eq("token"), any())).thenReturn(Mono.just(List.of()));
+        MercadoLivreItemBatcher batcher = new MercadoLivreItemBatcher(apiClient, tokenPool, 60_000, 60_000, 2, 5, Schedulers.single());
+
+        for (String id : List.of("MLB5", "MLB2", "MLB4", "MLB1", "MLB3")) {
+            batcher.getItem(id, true).subscribe(item -> { }, error -> { });
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> ids = ArgumentCaptor.forClass(List.class);
+        verify(apiClient, times(3)).getItems(ids.capture(), eq("token"), eq(MercadoLivreApiClient.PRICE_ATTRIBUTES));
+        assertEquals(List.of(List.of("MLB1", "MLB2"), List.of("MLB3", "MLB4"), List.of("MLB5")),
+                ids.getAllValues().stream().map(List::copyOf).toList());
+    }
+
+    @Test
+    @DisplayName("Deve esperar a janela ficar ociosa antes de enviar o lote")
+    void deveEsperarJanelaOciosa() throws Exception {
+        when(apiClient.getItems(any(), eq("token"), any())).thenReturn(Mono.just(List.of()));
+        MercadoLivreItemBatcher batcher = new MercadoLivreItemBatcher(apiClient, tokenPool, 300, 60_000, 20, 5000, Schedulers.parallel());
+
+        // Ids chegando a cada 40ms: nunca 300ms ociosos, então vão todos no mesmo lote
+        for (int i = 1; i <= 4; i++) {
+            batcher.getItem("MLB" + i, false).subscribe(item -> { }, error -> { });
+            Thread.sleep(40);
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> ids = ArgumentCaptor.forClass(List.class);
+        verify(apiClient, timeout(2000).times(1)).getItems(ids.capture(), eq("token"), any());
+        assertEquals(List.of("MLB1", "MLB2", "MLB3", "MLB4"), List.copyOf(ids.getValue()));
+    }
+
+    @Test
+    @DisplayName("Deve enviar o lote ao atingir o atraso máximo mesmo com ids chegando sem parar")
+    void deveRespeitarAtrasoMaximo() throws Exception {
+        when(apiClient.getItems(any(), eq("token"), any())).thenReturn(Mono.just(List.of()));
+        MercadoLivreItemBatcher batcher = new MercadoLivreItemBatcher(apiClient, tokenPool, 300, 100, 20, 5000, Schedulers.parallel());
+
+        // Ids a cada 40ms nunca deixam a janela ociosa; o atraso máximo de 100ms fecha o primeiro lote
+        for (int i = 1; i <= 8; i++) {
+            batcher.getItem("MLB" + i, false).subscribe(item -> { }, error -> { });
+            Thread.sleep(40);
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> ids = ArgumentCaptor.forClass(List.class);
+        verify(apiClient, timeout(2000).atLeast(2)).getItems(ids.capture(), eq("token"), any());
+        assertTrue(ids.getAllValues().get(0).size() < 8);
+    }
+
+    @Test
+    @DisplayName("Entradas de erro sem id devem manter o status real e acionar o pool de tokens")
+    void entradasDeErroMantemStatusReal() {
+        when(apiClient.getItems(any(), eq("token"), any())).thenReturn(Mono.just(List.of(
+                new MlMultiGetEntry(200, item("MLB1", 10.0)),
+                new MlMultiGetEntry(429, null),
+                new MlMultiGetEntry(500, new MlItem()))));
+        MercadoLivreItemBatcher batcher = new MercadoLivreItemBatcher(apiClient, tokenPool, 60_000, 60_000, 20, 3, Schedulers.single());
+
+        CompletableFuture<MlItem> first = batcher.getItem("MLB1", false).toFuture();
+        CompletableFuture<MlItem> second = batcher.getItem("MLB2", false).toFuture();
+        CompletableFuture<MlItem> third = batcher.getItem("MLB3", false).toFuture();
+
+        assertEquals(10.0, first.join().getPrice());
+        assertEquals(429, statusOf(second));
+        assertEquals(500, statusOf(third));
+        verify(tokenPool).reportFailure(any(), eq(429));
+    }
+
+    private static int statusOf(CompletableFuture<MlItem> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        return ((MercadoLivreItemException) e.getCause()).getStatus();
+    }
+
+    private static MlItem item(String id, Double price) {
+        MlItem item = new MlItem();
+        item.setId(id);
+        item.setPrice(price);
+        return item;
+    }
+}
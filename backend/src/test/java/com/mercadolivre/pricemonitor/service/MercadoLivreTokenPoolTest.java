@@ -0,0 +1,83 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MercadoLivreTokenPool Tests")
+class MercadoLivreTokenPoolTest {
+
+    private MercadoLivreTokenPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new MercadoLivreTokenPool(2, 60_000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Deve alternar entre os tokens e respeitar o limite por minuto")
+    void deveAlternarTokensERespeitarLimite() {
+        pool.replaceAll(List.of(token(1L, "a"), token(2L, "b")));
+
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            MercadoLivreTokenPool.PooledToken acquired = pool.acquire();
+            assertNotNull(acquired);
+            used.add(acquired.accessToken());
+        }
+
+        assertEquals(Set.of("a", "b"), used);
+        assertNull(pool.acquire(), "Both tokens used their 2 requests for this minute");
+    }
+
+    @Test
+    @DisplayName("Deve remover token rejeitado até que seja renovado")
+    void deveRemoverTokenRejeitadoAteRenovacao() {
+        pool.replaceAll(List.of(token(1L, "a")));
+
+        pool.reportFailure(pool.acquire(), 401);
+
+        assertFalse(pool.hasAvailableToken());
+        assertNull(pool.acquire());
+        assertEquals(1, pool.tokensNeedingRefresh(30).size());
+
+        pool.put(token(1L, "a-renewed"));
+
+        assertTrue(pool.hasAvailableToken());
+        assertEquals("a-renewed", pool.acquire().accessToken());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar tokens expirados e pausar tokens com limite atingido")
+    void deveIgnorarExpiradosEPausarLimitados() {
+        MercadoLivreToken expired = token(1L, "expired");
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        pool.replaceAll(List.of(expired, token(2L, "b")));
+
+        MercadoLivreTokenPool.PooledToken acquired = pool.acquire();
+        assertEquals("b", acquired.accessToken());
+
+        pool.reportFailure(acquired, 429);
+
+        assertNull(pool.acquire());
+    }
+
+    private static MercadoLivreToken token(Long id, String accessToken) {
+        MercadoLivreToken token = new MercadoLivreToken();
+        token.setId(id);
+        token.setAccessToken(accessToken);
+        token.setRefreshToken("refresh-" + id);
+        token.setExpiresAt(LocalDateTime.now().plusHours(6));
+        return token;
+    }
+}
@@ -0,0 +1,64 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.PriceChangeDaily;
+import com.mercadolivre.pricemonitor.repository.PriceChangeDailyRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceChangeRollupService Tests")
+class PriceChangeRollupServiceTest {
+
+    @Mock
+    private PriceChangeDailyRepository rollupRepository;
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("Recalculo não deve contar para o assinante as horas anteriores à assinatura")
+    @SuppressWarnings("unchecked")
+    void naoDeveContarHorasAnterioresAAssinatura() {
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        List<Object[]> changes = new ArrayList<>();
+        changes.add(new Object[]{7L, day, 9, 2L});
+        changes.add(new Object[]{7L, day, 10, 1L});
+        changes.add(new Object[]{7L, day, 11, 3L});
+        List<Object[]> subscribers = new ArrayList<>();
+        subscribers.add(new Object[]{1L, 100L, 7L, day.atStartOfDay()});
+        subscribers.add(new Object[]{2L, 200L, 7L, LocalDateTime.of(day, LocalTime.of(10, 30))});
+        when(priceHistoryRepository.countChangesByCatalogItemDateAndHour(any())).thenReturn(changes);
+        when(productRepository.findProductUserRows()).thenReturn(subscribers);
+
+        new PriceChangeRollupService(rollupRepository, priceHistoryRepository, productRepository, null, null, 2)
+                .reconcile(LocalDate.EPOCH);
+
+        ArgumentCaptor<List<PriceChangeDaily>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(saved.capture());
+        List<PriceChangeDaily> rollup = saved.getValue();
+        assertEquals(3, rollup.stream().filter(r -> r.getProductId().equals(1L)).count());
+        // Assinou às 10:30: a hora 9 fica de fora, a hora 10 (em que assinou) entra
+        assertEquals(List.of(10, 11), rollup.stream().filter(r -> r.getProductId().equals(2L))
+                .map(PriceChangeDaily::getChangeHour).sorted().toList());
+    }
+}
@@ -0,0 +1,130 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.repository.CatalogItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceSnapshot Tests")
+class PriceSnapshotTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Mock
+    private CatalogItemRepository catalogItemRepository;
+
+    private PriceSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new PriceSnapshot(catalogItemRepository, 12);
+    }
+
+    @Test
+    @DisplayName("Deve detectar preço inalterado dentro do intervalo de heartbeat")
+    void deveDetectarPrecoInalterado() {
+        long now = System.currentTimeMillis();
+        snapshot.record(1L, 99.90, 120.00, now);
+
+        assertTrue(snapshot.isUnchanged(1L, 99.90, 120.00, now + HOUR));
+        assertFalse(snapshot.isUnchanged(1L, 89.90, 120.00, now + HOUR));
+        assertFalse(snapshot.isUnchanged(1L, 99.90, null, now + HOUR));
+        assertFalse(snapshot.isUnchanged(2L, 99.90, 120.00, now + HOUR));
+    }
+
+    @Test
+    @DisplayName("Deve exigir heartbeat após o intervalo configurado")
+    void deveExigirHeartbeat() {
+        long now = System.currentTimeMillis();
+        snapshot.record(1L, 99.90, null, now);
+
+        assertFalse(snapshot.isUnchanged(1L, 99.90, null, now + 12 * HOUR));
+    }
+
+    @Test
+    @DisplayName("Deve manter entradas após remoções e redimensionamento")
+    void deveManterEntradasAposRemocoes() {
+        long now = System.currentTimeMillis();
+        for (long id = 1; id <= 5000; id++) {
+            snapshot.record(id, id / 100.0, null, now);
+        }
+        for (long id = 1; id <= 5000; id += 2) {
+            snapshot.remove(id);
+        }
+
+        assertEquals(2500, snapshot.size());
+        for (long id = 1; id <= 5000; id++) {
+            assertEquals(id % 2 == 0, snapshot.isUnchanged(id, id / 100.0, null, now));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o snapshot a partir do banco")
+    void deveReconstruirDoBanco() {
+        LocalDateTime checkedAt = LocalDateTime.now().minusHours(1);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 99.90, null, checkedAt});
+        rows.add(new Object[]{2L, null, null, null});
+        when(catalogItemRepository.findPriceSnapshotRows()).thenReturn(rows);
+
+        snapshot.rebuild();
+
+        long now = System.currentTimeMillis();
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.isUnchanged(1L, 99.90, null, now));
+        assertFalse(snapshot.isUnchanged(2L, 10.0, null, now));
+    }
+
+    @Test
+    @DisplayName("Rollback não deve publicar o preço: o próximo ciclo ainda grava a mudança")
+    void rollbackNaoPublicaPreco() {
+        TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+        snapshot.record(1L, 99.90, null, System.currentTimeMillis());
+
+        transaction.executeWithoutResult(status -> {
+            snapshot.recordAfterCommit(1L, 89.90, null);
+            status.setRollbackOnly();
+        });
+        assertFalse(snapshot.isUnchanged(1L, 89.90, null, System.currentTimeMillis()));
+        assertTrue(snapshot.isUnchanged(1L, 99.90, null, System.currentTimeMillis()));
+
+        transaction.executeWithoutResult(status -> snapshot.recordAfterCommit(1L, 89.90, null));
+        assertTrue(snapshot.isUnchanged(1L, 89.90, null, System.currentTimeMillis()));
+    }
+
+    /** Transaction manager without a resource, just to drive the synchronization callbacks. */
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.mercadolivre.pricemonitor.service;
 
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.CatalogItem;
 import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.CatalogItemRepository;
+import com.mercadolivre.pricemonitor.repository.PriceChangeDailyRepository;
 import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
 import com.mercadolivre.pricemonitor.repository.ProductRepository;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
@@ -20,6 +23,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +33,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CatalogItemRepository catalogItemRepository;
+
     @Mock
     private PriceHistoryRepository priceHistoryRepository;
 
@@ -41,21 +48,42 @@ class ProductServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private PriceSnapshot priceSnapshot;
+
+    @Mock
+    private LastCheckedWriteBehind lastCheckedWriteBehind;
+
+    @Mock
+    private PriceChangeRollupService priceChangeRollupService;
+
+    @Mock
+    private PriceChangeDailyRepository priceChangeDailyRepository;
+
+    @Mock
+    private ProductUpsert productUpsert;
+
+    @Mock
+    private AsyncScrapingService asyncScrapingService;
+
     @InjectMocks
     private ProductService productService;
 
+    private CatalogItem sampleItem;
+
     private Product sampleProduct;
 
     @BeforeEach
     void setUp() {
-        sampleProduct = new Product();
-        sampleProduct.setId(1L);
-        sampleProduct.setName("Produto Teste");
-        sampleProduct.setUrl("https://mercadolivre.com.br/produto-123");
-        sampleProduct.setCurrentPrice(99.90);
-        sampleProduct.setLastPrice(null);
-        sampleProduct.setUserId(1L);
-        sampleProduct.setLastCheckedAt(LocalDateTime.now());
+        sampleItem = new CatalogItem();
+        sampleItem.setId(1L);
+        sampleItem.setName("Produto Teste");
+        sampleItem.setUrl("https://mercadolivre.com.br/produto-123");
+        sampleItem.setCurrentPrice(99.90);
+        sampleItem.setLastPrice(null);
+        sampleItem.setLastCheckedAt(LocalDateTime.now());
+
+        sampleProduct = product(1L, 1L);
     }
 
     @Test
@@ -104,48 +132,131 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("Deve remover produto e histórico")
-    void deveRemoverProdutoEHistorico() {
+    @DisplayName("Deve remover produto mantendo o histórico compartilhado do anúncio")
+    void deveRemoverProdutoMantendoHistorico() {
         // Arrange
         Long productId = 1L;
-        doNothing().when(priceHistoryRepository).deleteByProductId(productId);
         doNothing().when(productRepository).deleteById(productId);
 
         // Act
         productService.removeProduct(productId);
 
         // Assert
-        verify(priceHistoryRepository, times(1)).deleteByProductId(productId);
+        verify(priceChangeDailyRepository, times(1)).deleteByProductId(productId);
         verify(productRepository, times(1)).deleteById(productId);
+        verifyNoInteractions(priceHistoryRepository);
     }
 
     @Test
     @DisplayName("Deve atualizar produto com novo preço")
     void deveAtualizarProdutoComNovoPreco() {
         // Arrange
-        ScrapeResponse scrapeData = new ScrapeResponse("Produto Atualizado", 89.90, "http://img.jpg", null, null, null);
+        ScrapeResponse scrapeData = new ScrapeResponse("Produto Atualizado", 89.90, "http://img.jpg", null, null, null, null);
+        when(productRepository.findByCatalogItemId(1L)).thenReturn(List.of(sampleProduct));
         
         // Act
-        productService.updateSingleProduct(sampleProduct, scrapeData);
+        productService.updateCatalogItem(sampleItem, scrapeData);
 
         // Assert
         assertEquals(99.90, sampleProduct.getLastPrice()); // Preço antigo virou lastPrice
         assertEquals(89.90, sampleProduct.getCurrentPrice()); // Novo preço
         assertEquals("Produto Atualizado", sampleProduct.getName());
-        verify(productRepository, times(1)).save(sampleProduct);
+        verify(catalogItemRepository, times(1)).save(sampleItem);
+        verify(priceHistoryRepository, times(1)).save(any());
+        verify(priceChangeRollupService).recordChange(eq(sampleProduct), any());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o histórico uma vez e contar a mudança para cada assinante")
+    void deveContarMudancaParaCadaAssinante() {
+        // Arrange
+        Product otherUser = product(2L, 2L);
+        ScrapeResponse scrapeData = new ScrapeResponse("Produto Teste", 89.90, null, null, null, null, null);
+        when(productRepository.findByCatalogItemId(1L)).thenReturn(List.of(sampleProduct, otherUser));
+
+        // Act
+        productService.updateCatalogItem(sampleItem, scrapeData);
+
+        // Assert
         verify(priceHistoryRepository, times(1)).save(any());
+        verify(priceChangeRollupService).recordChange(eq(sampleProduct), any());
+        verify(priceChangeRollupService).recordChange(eq(otherUser), any());
+        assertEquals(89.90, otherUser.getCurrentPrice());
+    }
+
+    @Test
+    @DisplayName("Deve apenas marcar verificação quando nada mudou")
+    void deveApenasMarcarVerificacaoQuandoNadaMudou() {
+        // Arrange
+        ScrapeResponse scrapeData = new ScrapeResponse("Produto Teste", 99.90, null, null, null, null, null);
+        sampleItem.setLastHistoryAt(LocalDateTime.now().minusHours(1));
+
+        // Act
+        productService.updateCatalogItem(sampleItem, scrapeData);
+
+        // Assert
+        verify(catalogItemRepository, never()).save(any());
+        verify(priceHistoryRepository, never()).save(any());
+        verify(lastCheckedWriteBehind).markChecked(1L, true);
     }
 
     @Test
     @DisplayName("Não deve atualizar produto com dados inválidos")
     void naoDeveAtualizarProdutoComDadosInvalidos() {
         // Arrange
-        ScrapeResponse invalidData = new ScrapeResponse(null, null, null, null, null, null);
+        ScrapeResponse invalidData = new ScrapeResponse(null, null, null, null, null, null, null);
+
+        // Act
+        productService.updateCatalogItem(sampleItem, invalidData);
+
+        // Assert
+        verify(catalogItemRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar anúncio que o usuário já monitora")
+    void deveRejeitarProdutoDuplicado() {
+        // Arrange
+        String url = "https://produto.mercadolivre.com.br/MLB-123456789-produto-teste";
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productUpsert.catalogItemFor(eq(ListingKeys.of(url)), eq(url), any())).thenReturn(sampleItem);
+        when(productUpsert.insertIfAbsent(any(Product.class), eq(0))).thenReturn(null);
+        when(productRepository.findFirstByCatalogItemIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(sampleProduct));
+
+        // Act & Assert
+        DuplicateProductException e = assertThrows(DuplicateProductException.class,
+                () -> productService.addProduct(url, 1L));
+        assertEquals(sampleProduct, e.getExisting());
+    }
+
+    @Test
+    @DisplayName("Deve expirar preço de anúncio sem assinantes ao reassinar")
+    void deveExpirarAnuncioOrfaoAoReassinar() {
+        // Arrange
+        String url = "https://produto.mercadolivre.com.br/MLB-123456789-produto-teste";
+        sampleItem.setStatus("ACTIVE");
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productUpsert.catalogItemFor(eq(ListingKeys.of(url)), eq(url), any())).thenReturn(sampleItem);
+        when(productRepository.existsByCatalogItemId(1L)).thenReturn(false);
+        when(productUpsert.insertIfAbsent(any(Product.class), eq(0))).thenReturn(2L);
 
         // Act
-        productService.updateSingleProduct(sampleProduct, invalidData);
+        productService.addProduct(url, 1L);
 
         // Assert
-        verify(productRepository, never()).save(any());
+        assertEquals("PENDING", sampleItem.getStatus());
+        assertNull(sampleItem.getCurrentPrice());
+        verify(catalogItemRepository).saveAndFlush(sampleItem);
+        verify(asyncScrapingService).scrapeCatalogItemInBackground(1L, sampleItem.getUrl());
+    }
+
+    private Product product(Long id, Long userId) {
+        Product product = new Product();
+        product.setId(id);
+        product.setUrl(sampleItem.getUrl());
+        product.setCatalogItem(sampleItem);
+        product.setUserId(userId);
+        return product;
     }
 }
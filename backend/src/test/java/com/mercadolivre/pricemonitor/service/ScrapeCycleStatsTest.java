@@ -0,0 +1,100 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.ScrapeCycle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScrapeCycleStats Tests")
+class ScrapeCycleStatsTest {
+
+    @Test
+    @DisplayName("Deve calcular percentis pelo rank mais próximo")
+    void deveCalcularPercentis() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+
+        assertEquals(50L, ScrapeCycleStats.percentile(sorted, 50));
+        assertEquals(95L, ScrapeCycleStats.percentile(sorted, 95));
+        assertEquals(99L, ScrapeCycleStats.percentile(sorted, 99));
+        assertEquals(7L, ScrapeCycleStats.percentile(new long[]{7}, 99));
+        assertNull(ScrapeCycleStats.percentile(new long[0], 50));
+    }
+
+    @Test
+    @DisplayName("Deve montar o relatório do ciclo com contadores, fontes e erros")
+    void deveMontarRelatorio() {
+        ScrapeCycleStats stats = new ScrapeCycleStats(5, 4);
+        stats.recordResponse(ScraperService.SOURCE_ML_API, 300);
+        stats.recordResponse(ScraperService.SOURCE_ML_API_PRICE, 100);
+        stats.recordResponse(ScraperService.SOURCE_SCRAPER, 200);
+        stats.recordBatchSuccess(2, 4_000_000, 1);
+        stats.recordUnchanged();
+        stats.recordError("NoResponse");
+
+        ScrapeCycle cycle = stats.toScrapeCycle();
+
+        assertEquals(5, cycle.getProductCount());
+        assertEquals(4, cycle.getDistinctListings());
+        assertEquals(2, cycle.getSuccessCount());
+        assertEquals(1, cycle.getUnchangedCount());
+        assertEquals(1, cycle.getFailedCount());
+        assertEquals(Map.of("ML_API", 1, "ML_API_PRICE", 1, "SCRAPER", 1), cycle.getRequestsBySource());
+        assertEquals(Map.of("NoResponse", 1), cycle.getErrorsByClass());
+        assertEquals(200L, cycle.getLatencyP50Ms());
+        assertEquals(300L, cycle.getLatencyMaxMs());
+        assertEquals(4L, cycle.getDbWriteMs());
+        assertEquals(1, cycle.getNotificationsSent());
+        assertNotNull(cycle.getFinishedAt());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar latências além do número de produtos sem perder a contagem por fonte")
+    void deveIgnorarLatenciasExcedentes() {
+        ScrapeCycleStats stats = new ScrapeCycleStats(2, 2);
+        stats.recordResponse(ScraperService.SOURCE_SCRAPER, 10);
+        stats.recordResponse(ScraperService.SOURCE_SCRAPER, 20);
+        stats.recordResponse(ScraperService.SOURCE_SCRAPER, 30);
+
+        ScrapeCycle cycle = stats.toScrapeCycle();
+
+        assertEquals(20L, cycle.getLatencyMaxMs());
+        assertEquals(Map.of("SCRAPER", 3), cycle.getRequestsBySource());
+    }
+
+    @Test
+    @DisplayName("Contadores devem ser consistentes com registros concorrentes")
+    void contadoresConcorrentes() throws Exception {
+        ScrapeCycleStats stats = new ScrapeCycleStats(1000, 1000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            pool.execute(() -> {
+                stats.recordResponse(n % 2 == 0 ? ScraperService.SOURCE_ML_API : ScraperService.SOURCE_SCRAPER, n);
+                if (n % 10 == 0) {
+                    stats.recordError("Timeout");
+                } else {
+                    stats.recordSuccess(1_000_000, 0);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        ScrapeCycle cycle = stats.toScrapeCycle();
+
+        assertEquals(900, cycle.getSuccessCount());
+        assertEquals(100, cycle.getFailedCount());
+        assertEquals(Map.of("ML_API", 500, "SCRAPER", 500), cycle.getRequestsBySource());
+        assertEquals(999L, cycle.getLatencyMaxMs());
+        assertEquals(900L, cycle.getDbWriteMs());
+    }
+}
@@ -0,0 +1,105 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScraperService Tests")
+class ScraperServiceTest {
+
+    private static final String OK_URL = "https://produto.mercadolivre.com.br/MLB-111-ok";
+    private static final String ERROR_URL = "https://produto.mercadolivre.com.br/MLB-222-erro";
+    private static final String MISSING_URL = "https://produto.mercadolivre.com.br/MLB-333-sumiu";
+
+    @Mock
+    private MercadoLivreService mercadoLivreService;
+
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+
+    private ScraperService scraperService;
+
+    @BeforeEach
+    void setUp() {
+        // Batch stream: one good line, one error line, and MISSING_URL never answered
+        String ndjson = """
+                {"url":"%s","title":"Produto OK","price":99.9,"imageUrl":"https://img/1.jpg"}
+                {"url":"%s","error":"timeout na API"}
+                """.formatted(OK_URL, ERROR_URL);
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://scraper")
+                .exchangeFunction(request -> {
+                    if (request.url().getPath().equals("/scrape/batch")) {
+                        batchCalls.incrementAndGet();
+                        return Mono.just(response(MediaType.APPLICATION_NDJSON, ndjson));
+                    }
+                    singleCalls.incrementAndGet();
+                    return Mono.just(response(MediaType.APPLICATION_JSON,
+                            "{\"title\":\"Fallback\",\"price\":50.0}"));
+                })
+                .build();
+        when(mercadoLivreService.hasValidToken()).thenReturn(false);
+        scraperService = new ScraperService("http://scraper", 20, webClient, mercadoLivreService);
+    }
+
+    private static ClientResponse response(MediaType contentType, String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, contentType.toString())
+                .body(body)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve completar pelo stream NDJSON e mandar linhas de erro e URLs ausentes para /scrape")
+    void deveUsarFallbackParaErrosEAusentes() throws Exception {
+        Map<String, CompletableFuture<ScrapeResponse>> futures = scraperService.fetchProductDataBatch(
+                List.of(OK_URL, ERROR_URL, MISSING_URL), Set.of());
+
+        ScrapeResponse ok = futures.get(OK_URL).get(5, TimeUnit.SECONDS);
+        ScrapeResponse error = futures.get(ERROR_URL).get(5, TimeUnit.SECONDS);
+        ScrapeResponse missing = futures.get(MISSING_URL).get(5, TimeUnit.SECONDS);
+
+        assertEquals("Produto OK", ok.getTitle());
+        assertEquals(99.9, ok.getPrice());
+        assertEquals(ScraperService.SOURCE_SCRAPER, ok.getSource());
+        assertEquals("Fallback", error.getTitle());
+        assertNull(error.getError());
+        assertEquals("Fallback", missing.getTitle());
+        assertEquals(1, batchCalls.get());
+        assertEquals(2, singleCalls.get());
+    }
+
+    @Test
+    @DisplayName("Deve medir a latência de cada URL a partir do próprio envio")
+    void deveMedirLatenciaPorUrl() throws Exception {
+        Map<String, CompletableFuture<ScrapeResponse>> futures = scraperService.fetchProductDataBatch(
+                List.of(OK_URL, MISSING_URL), Set.of());
+
+        for (CompletableFuture<ScrapeResponse> future : futures.values()) {
+            Long latency = future.get(5, TimeUnit.SECONDS).getLatencyMs();
+            assertNotNull(latency);
+            assertTrue(latency >= 0 && latency < 5000);
+        }
+    }
+}
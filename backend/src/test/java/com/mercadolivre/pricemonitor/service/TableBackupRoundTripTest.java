@@ -0,0 +1,109 @@
+package com.mercadolivre.pricemonitor.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Export and restore against a real PostgreSQL (COPY and partitioning have no H2 equivalent).
+ * Runs only when TEST_POSTGRES_URL points to a disposable database, e.g.
+ * {@code TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/pricemonitor_test TEST_POSTGRES_USER=postgres mvn test}.
+ * The schema comes from the Flyway migrations; the test truncates the tables it uses.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+@DisplayName("Backup via COPY: export e restore no PostgreSQL")
+class TableBackupRoundTripTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) throws Exception {
+        registry.add("spring.datasource.url", () -> System.getenv("TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("TEST_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", ""));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+        Path backupDir = Files.createTempDirectory("backup-roundtrip");
+        registry.add("backup.export.dir", backupDir::toString);
+        // Small chunks so every table spans several files
+        registry.add("backup.export.chunk-ids", () -> "2");
+        registry.add("backup.export.max-bytes-per-second", () -> "0");
+    }
+
+    @Autowired
+    private TableBackupService backupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE users, catalog_items, subscriptions, price_history, notifications, "
+                + "price_change_daily, ml_tokens CASCADE");
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (email, password, full_name, email_verified, created_at) "
+                + "VALUES ('backup@test.com', 'x', 'Backup', TRUE, now()) RETURNING id", Long.class);
+        LocalDateTime now = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
+        for (long item = 1; item <= 3; item++) {
+            jdbcTemplate.update("INSERT INTO catalog_items (id, listing_key, url, name, current_price, created_at) "
+                    + "VALUES (?, ?, ?, ?, 100, now())", item, "MLB" + item, "https://produto.mercadolivre.com.br/MLB-" + item, "Item " + item);
+            jdbcTemplate.update("INSERT INTO subscriptions (id, url, user_id, catalog_item_id, created_at) VALUES (?, ?, ?, ?, now())",
+                    item, "https://produto.mercadolivre.com.br/MLB-" + item, userId, item);
+        }
+        jdbcTemplate.queryForObject("SELECT price_history_ensure_partition(CAST(? AS DATE))", String.class, now.toLocalDate());
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO price_history (id, catalog_item_id, price, recorded_at, previous_price, is_change) "
+                    + "VALUES (?, ?, ?, ?, 100, ?)", id, id % 3 + 1, 90 + id, now, id != 5);
+        }
+        jdbcTemplate.update("INSERT INTO notifications (id, user_id, product_id, product_name, type, message, is_read, created_at) "
+                + "VALUES (1, ?, 1, 'Item 1', 'PRICE_DROP', 'Baixou', FALSE, now())", userId);
+    }
+
+    @Test
+    @DisplayName("Deve restaurar as tabelas e recalcular price_change_daily na mesma transação")
+    void deveRestaurarERecalcularRollup() throws Exception {
+        Path export = backupService.export();
+        assertNotNull(export);
+        assertTrue(Files.exists(export.resolve("COMPLETE")));
+
+        // Changes after the export, including a stale rollup row
+        jdbcTemplate.update("UPDATE catalog_items SET name = 'Alterado' WHERE id = 1");
+        jdbcTemplate.update("DELETE FROM price_history WHERE id IN (1, 2)");
+        jdbcTemplate.update("DELETE FROM notifications");
+        jdbcTemplate.update("INSERT INTO price_change_daily (product_id, change_date, change_hour, user_id, change_count) "
+                + "VALUES (2, DATE '2000-01-01', 0, ?, 42)", userId);
+
+        backupService.restore(export);
+
+        assertEquals("Item 1", jdbcTemplate.queryForObject("SELECT name FROM catalog_items WHERE id = 1", String.class));
+        assertEquals(3, count("subscriptions"));
+        assertEquals(5, count("price_history"));
+        assertEquals(1, count("notifications"));
+        // Rollup rebuilt from the restored history: 4 changes, no stale row left
+        assertEquals(4L, jdbcTemplate.queryForObject("SELECT SUM(change_count) FROM price_change_daily", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM price_change_daily WHERE change_date = DATE '2000-01-01'", Integer.class));
+        // Sequences realigned past the restored ids
+        assertTrue(jdbcTemplate.queryForObject("SELECT nextval('price_history_seq')", Long.class) > 5);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
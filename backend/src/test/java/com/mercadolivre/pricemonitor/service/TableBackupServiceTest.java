@@ -0,0 +1,92 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.service.TableBackupService.ChunkRange;
+import com.mercadolivre.pricemonitor.service.TableBackupService.ThrottledOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TableBackupService Tests")
+class TableBackupServiceTest {
+
+    @Test
+    @DisplayName("Deve cobrir todos os ids em faixas alinhadas ao tamanho do bloco")
+    void deveCobrirIdsEmFaixasAlinhadas() {
+        assertEquals(List.of(
+                        new ChunkRange(0, 0, 100),
+                        new ChunkRange(1, 100, 200),
+                        new ChunkRange(2, 200, 250)),
+                TableBackupService.chunkRanges(1, 250, 100));
+    }
+
+    @Test
+    @DisplayName("Deve começar no bloco do menor id e parar exatamente no maior")
+    void deveRespeitarLimitesDoManifesto() {
+        assertEquals(List.of(new ChunkRange(2, 200, 300), new ChunkRange(3, 300, 301)),
+                TableBackupService.chunkRanges(250, 301, 100));
+        // Limites exatos: id 200 fica no bloco 1, id 201 no bloco 2
+        assertEquals(List.of(new ChunkRange(1, 100, 200)), TableBackupService.chunkRanges(101, 200, 100));
+        assertEquals(List.of(new ChunkRange(2, 200, 201)), TableBackupService.chunkRanges(201, 201, 100));
+    }
+
+    @Test
+    @DisplayName("Tabela vazia não deve gerar blocos")
+    void tabelaVaziaNaoGeraBlocos() {
+        assertTrue(TableBackupService.chunkRanges(0, 0, 100).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve repassar os bytes intactos e respeitar o limite de bytes por segundo")
+    void deveLimitarVazao() throws Exception {
+        byte[] data = new byte[20_000];
+        Arrays.fill(data, (byte) 'x');
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        long start = System.nanoTime();
+        try (ThrottledOutputStream out = new ThrottledOutputStream(sink, 100_000)) {
+            for (int i = 0; i < data.length; i += 1_000) {
+                out.write(data, i, 1_000);
+            }
+            out.write('y');
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(20_001, sink.size());
+        assertEquals('y', sink.toByteArray()[20_000]);
+        // 20 KB a 100 KB/s: pelo menos ~200ms
+        assertTrue(elapsedMillis >= 190, "elapsed " + elapsedMillis + "ms");
+    }
+
+    @Test
+    @DisplayName("Limite zero não deve atrasar a escrita")
+    void limiteZeroNaoAtrasa() throws Exception {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        long start = System.nanoTime();
+        try (ThrottledOutputStream out = new ThrottledOutputStream(sink, 0)) {
+            out.write(new byte[5_000_000]);
+        }
+
+        assertEquals(5_000_000, sink.size());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+    }
+
+    @Test
+    @DisplayName("Interrupção durante a espera deve abortar o export")
+    void interrupcaoAbortaExport() {
+        ThrottledOutputStream out = new ThrottledOutputStream(new ByteArrayOutputStream(), 1_000);
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, () -> out.write(new byte[10_000]));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -48,6 +48,16 @@ MAX_RETRIES = int(os.getenv("MAX_RETRIES", "2"))
 # Máximo de requisições por minuto (0 = sem limite)
 MAX_REQUESTS_PER_MINUTE = int(os.getenv("MAX_REQUESTS_PER_MINUTE", "30"))
 
+# ========================================
+# Batch (/scrape/batch)
+# ========================================
+
+# Máximo de URLs aceitas em uma única requisição em lote
+BATCH_MAX_SIZE = int(os.getenv("BATCH_MAX_SIZE", "50"))
+
+# Quantas URLs do lote são processadas ao mesmo tempo
+BATCH_CONCURRENCY = int(os.getenv("BATCH_CONCURRENCY", "8"))
+
 # ========================================
 # Ambiente
 # ========================================
@@ -66,5 +76,7 @@ def get_config_summary():
         "delay_range": f"{MIN_DELAY_SECONDS}-{MAX_DELAY_SECONDS}s",
         "max_retries": MAX_RETRIES,
         "rate_limit": f"{MAX_REQUESTS_PER_MINUTE}/min" if MAX_REQUESTS_PER_MINUTE > 0 else "unlimited",
+        "batch_max_size": BATCH_MAX_SIZE,
+        "batch_concurrency": BATCH_CONCURRENCY,
         "is_production": IS_PRODUCTION
     }
@@ -9,17 +9,22 @@ MODOS DE OPERAÇÃO (em ordem de prioridade):
 
 from contextlib import asynccontextmanager
 import asyncio
+import json
 import sys
 import os
 import httpx
 
 from fastapi import FastAPI, HTTPException
 from fastapi.middleware.cors import CORSMiddleware
+from fastapi.responses import StreamingResponse
 from pydantic import BaseModel
-from typing import Optional
+from typing import Optional, List
 
 from cache import scrape_cache
-from config import CACHE_ENABLED, USE_SCRAPER_API, SCRAPER_API_KEY, get_config_summary
+from config import (
+    CACHE_ENABLED, USE_SCRAPER_API, SCRAPER_API_KEY, BATCH_MAX_SIZE, BATCH_CONCURRENCY,
+    get_config_summary
+)
 
 # Importar API do ML como método principal (sem bloqueios!)
 try:
@@ -242,33 +247,26 @@ async def health_check():
     }
 
 
-@app.post("/scrape", response_model=ScrapeResponse, responses={422: {"model": ErrorResponse}})
-async def scrape_product(request: ScrapeRequest):
+def is_mercadolivre_url(url: str) -> bool:
+    return "mercadolivre" in url or "mercadolibre" in url
+
+
+async def resolve_product(clean_url: str) -> Optional[dict]:
     """
-    Busca dados de um produto do Mercado Livre.
-    
-    Fluxo de prioridade:
+    Busca os dados de um produto seguindo a ordem de prioridade:
     1. Verifica cache primeiro
     2. Tenta API oficial do ML (mais confiável, sem bloqueios)
     3. Tenta ScraperAPI (proxy com rotação de IP)
     4. Fallback: scraping com Playwright (menos confiável)
+
+    Retorna None quando todos os métodos falham.
     """
-    if "mercadolivre" not in request.url and "mercadolibre" not in request.url:
-        raise HTTPException(
-            status_code=422,
-            detail="URL must be from Mercado Livre (mercadolivre.com.br or mercadolibre.com)"
-        )
-    
-    # Limpar URL
-    clean_url = clean_mercadolivre_url(request.url)
-    print(f"[INFO] URL: {clean_url[:80]}...", flush=True)
-    
     # 1. Verificar cache primeiro
     if CACHE_ENABLED:
         cached = scrape_cache.get(clean_url)
         if cached:
             print(f"[CACHE] ✅ Hit: {clean_url[:50]}...", flush=True)
-            return ScrapeResponse(**cached)
+            return cached
     
     # 2. PRIORIDADE: Usar API oficial do ML (sem bloqueios!)
     if ML_API_AVAILABLE:
@@ -279,7 +277,7 @@ async def scrape_product(request: ScrapeRequest):
                 print(f"[ML_API] ✅ Sucesso! {result.get('title', '')[:40]}...", flush=True)
                 if CACHE_ENABLED:
                     scrape_cache.set(clean_url, result)
-                return ScrapeResponse(**result)
+                return result
             else:
                 print(f"[ML_API] ⚠️ API não retornou dados, tentando próximo método...", flush=True)
         except Exception as e:
@@ -294,7 +292,7 @@ async def scrape_product(request: ScrapeRequest):
                 print(f"[SCRAPERAPI] ✅ Sucesso! {result.get('title', '')[:40]}...", flush=True)
                 if CACHE_ENABLED:
                     scrape_cache.set(clean_url, result)
-                return ScrapeResponse(**result)
+                return result
             else:
                 print(f"[SCRAPERAPI] ⚠️ Não retornou dados, tentando Playwright...", flush=True)
         except Exception as e:
@@ -309,9 +307,37 @@ async def scrape_product(request: ScrapeRequest):
                 print(f"[SCRAPER] ✅ Sucesso! {result.get('title', '')[:40]}...", flush=True)
                 if CACHE_ENABLED:
                     scrape_cache.set(clean_url, result)
-                return ScrapeResponse(**result)
+                return result
         except Exception as e:
             print(f"[SCRAPER] ❌ Erro: {e}", flush=True)
+
+    return None
+
+
+@app.post("/scrape", response_model=ScrapeResponse, responses={422: {"model": ErrorResponse}})
+async def scrape_product(request: ScrapeRequest):
+    """
+    Busca dados de um produto do Mercado Livre.
+    
+    Fluxo de prioridade:
+    1. Verifica cache primeiro
+    2. Tenta API oficial do ML (mais confiável, sem bloqueios)
+    3. Tenta ScraperAPI (proxy com rotação de IP)
+    4. Fallback: scraping com Playwright (menos confiável)
+    """
+    if not is_mercadolivre_url(request.url):
+        raise HTTPException(
+            status_code=422,
+            detail="URL must be from Mercado Livre (mercadolivre.com.br or mercadolibre.com)"
+        )
+    
+    # Limpar URL
+    clean_url = clean_mercadolivre_url(request.url)
+    print(f"[INFO] URL: {clean_url[:80]}...", flush=True)
+    
+    result = await resolve_product(clean_url)
+    if result:
+        return ScrapeResponse(**result)
     
     # Todos os métodos falharam
     raise HTTPException(
@@ -320,6 +346,46 @@ async def scrape_product(request: ScrapeRequest):
     )
 
 
+@app.post("/scrape/batch", responses={413: {"model": ErrorResponse}})
+async def scrape_batch(requests: List[ScrapeRequest]):
+    """
+    Busca vários produtos em uma única requisição.
+
+    A resposta é um stream NDJSON (uma linha JSON por URL, na ordem em que
+    ficam prontas). Cada linha traz a URL original em "url" para o backend
+    correlacionar; falhas vêm como {"url": ..., "error": ...}.
+    """
+    if len(requests) > BATCH_MAX_SIZE:
+        raise HTTPException(
+            status_code=413,
+            detail=f"Batch too large: {len(requests)} URLs (max {BATCH_MAX_SIZE})"
+        )
+
+    semaphore = asyncio.Semaphore(BATCH_CONCURRENCY)
+
+    async def scrape_one(url: str) -> dict:
+        if not is_mercadolivre_url(url):
+            return {"url": url, "error": "URL must be from Mercado Livre"}
+        async with semaphore:
+            try:
+                result = await resolve_product(clean_mercadolivre_url(url))
+                if not result:
+                    return {"url": url, "error": "Não foi possível obter os dados do produto"}
+                # Validação dentro do try: um resultado incompleto vira linha de erro, não derruba o stream
+                return {"url": url, **ScrapeResponse(**result).model_dump()}
+            except Exception as e:
+                return {"url": url, "error": str(e)}
+
+    async def stream():
+        tasks = [asyncio.create_task(scrape_one(r.url)) for r in requests]
+        for task in asyncio.as_completed(tasks):
+            line = await task
+            yield json.dumps(line, ensure_ascii=False) + "\n"
+
+    print(f"[BATCH] 📦 Recebido lote com {len(requests)} URLs", flush=True)
+    return StreamingResponse(stream(), media_type="application/x-ndjson")
+
+
 # ========================================
 # Cache Management Endpoints
 # ========================================
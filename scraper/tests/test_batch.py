@@ -0,0 +1,77 @@
+"""
+Testes do endpoint /scrape/batch (stream NDJSON).
+
+resolve_product é substituído por um fake, então nada sai para a rede.
+Rodar com: pip install -r requirements-dev.txt && pytest
+"""
+
+import json
+
+import pytest
+from fastapi.testclient import TestClient
+
+import main
+
+OK_URL = "https://produto.mercadolivre.com.br/MLB-111-ok"
+MALFORMED_URL = "https://produto.mercadolivre.com.br/MLB-222-sem-preco"
+EMPTY_URL = "https://produto.mercadolivre.com.br/MLB-333-vazio"
+RAISING_URL = "https://produto.mercadolivre.com.br/MLB-444-erro"
+OTHER_SITE_URL = "https://www.example.com/produto"
+
+
+async def fake_resolve_product(clean_url: str):
+    if "MLB-111" in clean_url:
+        return {"title": "Produto OK", "price": 99.9, "imageUrl": "https://img/1.jpg"}
+    if "MLB-222" in clean_url:
+        return {"title": "Produto sem preço"}
+    if "MLB-333" in clean_url:
+        return None
+    raise RuntimeError("timeout na API")
+
+
+@pytest.fixture
+def client(monkeypatch):
+    monkeypatch.setattr(main, "resolve_product", fake_resolve_product)
+    # Sem "with": o lifespan (Playwright) não é iniciado
+    return TestClient(main.app)
+
+
+def read_lines(response):
+    return {line["url"]: line for line in map(json.loads, response.text.splitlines()) if line}
+
+
+def test_batch_returns_one_line_per_url(client):
+    urls = [OK_URL, MALFORMED_URL, EMPTY_URL, RAISING_URL, OTHER_SITE_URL]
+
+    response = client.post("/scrape/batch", json=[{"url": url} for url in urls])
+
+    assert response.status_code == 200
+    assert response.headers["content-type"].startswith("application/x-ndjson")
+    lines = read_lines(response)
+    assert set(lines) == set(urls)
+
+    assert lines[OK_URL]["title"] == "Produto OK"
+    assert lines[OK_URL]["price"] == 99.9
+    assert "error" not in lines[OK_URL]
+
+
+def test_batch_turns_failures_into_error_lines(client):
+    urls = [MALFORMED_URL, EMPTY_URL, RAISING_URL, OTHER_SITE_URL]
+
+    response = client.post("/scrape/batch", json=[{"url": url} for url in urls])
+
+    lines = read_lines(response)
+    for url in urls:
+        assert lines[url]["error"], url
+        assert "price" not in lines[url]
+    # Resultado incompleto (sem preço) falha na validação do modelo, dentro do try
+    assert "price" in lines[MALFORMED_URL]["error"]
+    assert lines[RAISING_URL]["error"] == "timeout na API"
+
+
+def test_batch_rejects_oversized_batch(client, monkeypatch):
+    monkeypatch.setattr(main, "BATCH_MAX_SIZE", 2)
+
+    response = client.post("/scrape/batch", json=[{"url": OK_URL}] * 3)
+
+    assert response.status_code == 413